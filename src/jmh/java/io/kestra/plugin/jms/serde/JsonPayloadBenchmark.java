@@ -0,0 +1,49 @@
+package io.kestra.plugin.jms.serde;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.kestra.core.serializers.FileSerde;
+
+/**
+ * Compares writing a JSON body to an Ion output file through a parsed tree with transcoding its tokens directly.
+ * Run with {@code ./gradlew jmh}, allocations are reported with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonPayloadBenchmark {
+    @Param({"1024", "102400"})
+    private int size;
+
+    private String json;
+
+    @Setup
+    public void setup() {
+        StringBuilder items = new StringBuilder("[");
+        for (int i = 0; items.length() < this.size; i++) {
+            items.append(i == 0 ? "" : ",").append("{\"index\":").append(i).append(",\"name\":\"item ").append(i).append("\"}");
+        }
+        this.json = items.append("]").toString();
+    }
+
+    @Benchmark
+    public void writeParsedTree() throws IOException {
+        FileSerde.write(OutputStream.nullOutputStream(), SerdeType.JSON.deserialize(this.json));
+    }
+
+    @Benchmark
+    public void writeTranscoded() throws IOException {
+        FileSerde.write(OutputStream.nullOutputStream(), JsonPayload.of(this.json));
+    }
+}
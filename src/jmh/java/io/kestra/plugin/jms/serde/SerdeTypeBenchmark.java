@@ -0,0 +1,64 @@
+package io.kestra.plugin.jms.serde;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares decoding the text of a TextMessage directly with the former round-trip through its UTF-8 bytes.
+ * Run with {@code ./gradlew jmh}, allocations are reported with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerdeTypeBenchmark {
+    @Param({"1024", "102400"})
+    private int size;
+
+    private String text;
+    private String json;
+
+    @Setup
+    public void setup() {
+        StringBuilder value = new StringBuilder(this.size);
+        while (value.length() < this.size) {
+            value.append("Lorem ipsum dolor sit amet, \u00e9lit ");
+        }
+        this.text = value.substring(0, this.size);
+
+        StringBuilder items = new StringBuilder("[");
+        for (int i = 0; items.length() < this.size; i++) {
+            items.append(i == 0 ? "" : ",").append("{\"index\":").append(i).append(",\"name\":\"item ").append(i).append("\"}");
+        }
+        this.json = items.append("]").toString();
+    }
+
+    @Benchmark
+    public Object stringThroughBytes() throws IOException {
+        return SerdeType.STRING.deserialize(this.text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Object stringFromText() throws IOException {
+        return SerdeType.STRING.deserialize(this.text);
+    }
+
+    @Benchmark
+    public Object jsonThroughBytes() throws IOException {
+        return SerdeType.JSON.deserialize(this.json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Object jsonFromText() throws IOException {
+        return SerdeType.JSON.deserialize(this.json);
+    }
+}
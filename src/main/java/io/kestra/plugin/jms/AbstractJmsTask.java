@@ -4,9 +4,11 @@ import io.kestra.core.models.annotations.PluginProperty;
 import io.kestra.core.models.tasks.Task;
 import io.kestra.core.runners.RunContext;
 import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+import io.kestra.plugin.jms.configuration.ConnectionPoolConfig;
 
 import at.conapi.oss.jms.adapter.impl.ConnectionAdapter;
 import at.conapi.oss.jms.adapter.impl.ConnectionFactoryAdapter;
+import at.conapi.oss.jms.adapter.impl.SessionAdapter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -32,6 +34,13 @@ public abstract class AbstractJmsTask extends Task {
     )
     private ConnectionFactoryConfig connectionFactoryConfig;
 
+    @PluginProperty(group = "connection")
+    @Schema(
+        title = "Connection pool",
+        description = "Opt-in pool of connections and sessions shared by all tasks and triggers on the worker with the same rendered connection factory configuration and credentials. When unset, a dedicated connection is opened and closed on every run."
+    )
+    private ConnectionPoolConfig connectionPool;
+
     /**
      * Creates a JMS connection using the provided configuration but does NOT start it.
      * Subclasses are responsible for starting the connection after setting up consumers.
@@ -62,6 +71,39 @@ public abstract class AbstractJmsTask extends Task {
         return connection;
     }
 
+    /**
+     * Opens a session for a task run, borrowing it from the worker-wide connection pool when {@code connectionPool} is set,
+     * or on a new dedicated connection otherwise. Closing the returned lease gives the session back to its pool,
+     * or closes the dedicated session and connection.
+     *
+     * @param runContext The Kestra RunContext.
+     * @param transacted Whether the session must be transacted, otherwise it acknowledges automatically.
+     * @return A lease holding the connection and session to use.
+     * @throws Exception if the connection or session cannot be established.
+     */
+    protected JMSConnectionPool.Lease openSession(RunContext runContext, boolean transacted) throws Exception {
+        return this.openSession(runContext, transacted ? SessionAdapter.SESSION_TRANSACTED : SessionAdapter.AUTO_ACKNOWLEDGE);
+    }
+
+    /**
+     * Opens a session with the given mode, see {@link #openSession(RunContext, boolean)}.
+     *
+     * @param sessionMode {@link SessionAdapter#SESSION_TRANSACTED} or the acknowledgement mode of the session.
+     */
+    protected JMSConnectionPool.Lease openSession(RunContext runContext, int sessionMode) throws Exception {
+        if (this.connectionPool != null) {
+            return JMSConnectionPool.borrow(runContext, this.connectionFactoryConfig, this.connectionPool, sessionMode);
+        }
+
+        ConnectionAdapter connection = this.createConnection(runContext);
+        try {
+            return JMSConnectionPool.Lease.dedicated(connection, JMSConnectionPool.createSession(connection, sessionMode), sessionMode);
+        } catch (Exception e) {
+            closeQuietly(connection);
+            throw e;
+        }
+    }
+
     /**
      * Utility method to safely close JMS resources without throwing exceptions.
      * 
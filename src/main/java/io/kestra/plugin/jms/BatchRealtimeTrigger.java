@@ -0,0 +1,249 @@
+package io.kestra.plugin.jms;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.reactivestreams.Publisher;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.*;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.Rethrow;
+import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+import io.kestra.plugin.jms.configuration.ReconnectConfig;
+import io.kestra.plugin.jms.serde.Compression;
+import io.kestra.plugin.jms.serde.Serde;
+import io.kestra.plugin.jms.serde.SerdeType;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A Kestra trigger that starts a single flow execution for each batch of messages received
+ * from a JMS queue or topic.
+ */
+@SuperBuilder
+@ToString
+@EqualsAndHashCode(callSuper = true)
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Start a flow on batches of JMS messages",
+    description = "Listens to a JMS queue or topic and collects messages until `maxRecords` are received or `maxDuration` has elapsed, writes the batch to an ION file in internal storage and launches one execution with its URI and count. Messages are acknowledged only once the execution of their batch has been emitted."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Start a flow for every 500 messages, or every 10 seconds, received on a JMS queue.",
+            full = true,
+            code = """
+                id: jms-batch-flow
+                namespace: company.team
+
+                tasks:
+                  - id: log-batch
+                    type: io.kestra.plugin.core.log.Log
+                    message: "Received {{ trigger.count }} messages in {{ trigger.uri }}"
+
+                triggers:
+                  - id: jms-batch-trigger
+                    type: io.kestra.plugin.jms.BatchRealtimeTrigger
+                    connectionFactoryConfig:
+                      type: DIRECT
+                      providerJarPaths: kestra:///jms/activemq-client.jar
+                      connectionFactoryClass: org.apache.activemq.ActiveMQConnectionFactory
+                    destination:
+                      name: "kestra.events"
+                      destinationType: QUEUE
+                    maxRecords: 500
+                    maxDuration: PT10S
+                """
+        )
+    }
+)
+public class BatchRealtimeTrigger extends AbstractTrigger implements RealtimeTriggerInterface, TriggerOutput<Consume.Output> {
+
+    // NOTE: Using @PluginProperty instead of Property<ConnectionFactoryConfig> wrapper, see RealtimeTrigger.
+    @Schema(title = "JMS connection factory configuration")
+    @PluginProperty(group = "main")
+    @NotNull
+    private ConnectionFactoryConfig connectionFactoryConfig;
+
+    @PluginProperty(group = "main")
+    @NotNull
+    @Schema(title = "Destination to consume", description = "Rendered queue or topic name; destinationType selects QUEUE vs TOPIC")
+    private JMSDestination destination;
+
+    @Schema(
+        title = "Message selector",
+        description = "Optional JMS selector to filter messages server-side using SQL-92 syntax (e.g., \"JMSPriority > 5 AND type = 'order'\")."
+    )
+    @PluginProperty(group = "advanced")
+    private String messageSelector;
+
+    @Builder.Default
+    @Schema(title = "Deserialization format", description = "STRING for text, JSON for JSON text, BYTES for binary payloads, MSGPACK and CBOR for binary encodings of structured data, AVRO and PROTOBUF for binary encodings following `schema`.", defaultValue = "STRING")
+    @PluginProperty(group = "processing")
+    private Property<SerdeType> serdeType = Property.ofValue(SerdeType.STRING);
+
+    @Schema(
+        title = "Schema of AVRO and PROTOBUF bodies",
+        description = "For AVRO, the schema as JSON or the `kestra://` or `nsfile://` URI of a schema file. For PROTOBUF, the URI of a descriptor set generated with `protoc --include_imports --descriptor_set_out`. Loaded and compiled once per start of the trigger."
+    )
+    @PluginProperty(group = "processing")
+    private Property<String> schema;
+
+    @Schema(
+        title = "Protobuf message type",
+        description = "Fully-qualified name of the message in the `schema` descriptor set, e.g. `com.acme.Order`; required for PROTOBUF."
+    )
+    @PluginProperty(group = "processing")
+    private Property<String> messageType;
+
+    @Builder.Default
+    @Schema(
+        title = "Maximum decompressed body size (bytes)",
+        description = "Rendered size in bytes a body compressed by `Produce` may decompress to; a larger body fails the trigger, so that a corrupt or hostile message can't exhaust the memory. Default 64 MiB (67108864)."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Integer> maxDecompressedSize = Property.ofValue(Compression.DEFAULT_MAX_DECOMPRESSED_SIZE);
+
+    @Builder.Default
+    @Schema(
+        title = "Maximum messages per batch",
+        description = "Rendered number of messages after which the batch is stored and its execution started; default 500. Delivery is paused while two batches are waiting for their execution."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Integer> maxRecords = Property.ofValue(500);
+
+    @Builder.Default
+    @Schema(
+        title = "Maximum batch duration",
+        description = "Rendered maximum time a batch collects messages before it is stored and its execution started, even if `maxRecords` is not reached; default PT10S."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Duration> maxDuration = Property.ofValue(Duration.ofSeconds(10));
+
+    @Builder.Default
+    @Schema(
+        title = "Reconnection",
+        description = "When the connection to the broker is lost, a new one is opened in place with a jittered exponential backoff, reusing the cached connection factory, instead of failing the trigger. Unacknowledged messages are redelivered on the new connection. Reconnections and downtime are reported as the `reconnects` and `reconnect.downtime` metrics."
+    )
+    @PluginProperty(group = "connection")
+    private ReconnectConfig reconnect = ReconnectConfig.builder().build();
+
+    @Builder.Default
+    @Schema(
+        title = "Share the connection",
+        description = "Open this trigger's sessions and consumers on a connection shared, and reference-counted, by every trigger of the worker with this setting and the same rendered connection factory configuration and credentials, instead of a dedicated connection; default false. A shared connection is never stopped, so delivery is paused by holding the session's listener once the buffer is full."
+    )
+    @PluginProperty(group = "connection")
+    private Property<Boolean> shareConnection = Property.ofValue(false);
+
+    @Builder.Default
+    @Schema(
+        title = "Metrics interval",
+        description = "Interval at which the trigger reports its metrics, covering the time since the previous report: `messages.received` and `acknowledgements` counters, `stage.decode`, `stage.emit` and `stage.acknowledge` timers, the end-to-end latency from the JMSTimestamp as `latency` counters per `bucket` with a `latency.max` timer, and the `reconnects` counter with the `reconnect.downtime` timer; default PT1M, at least PT10S, PT0S reports only on shutdown."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Duration> metricsInterval = Property.ofValue(Duration.ofMinutes(1));
+
+    @Override
+    public Publisher<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) {
+        RunContext runContext = conditionContext.getRunContext();
+
+        int rMaxRecords;
+        Duration rMaxDuration;
+        try {
+            rMaxRecords = Math.max(1, runContext.render(maxRecords).as(Integer.class).orElse(500));
+            rMaxDuration = runContext.render(maxDuration).as(Duration.class).orElse(Duration.ofSeconds(10));
+        } catch (IllegalVariableEvaluationException e) {
+            return Flux.error(e);
+        }
+
+        Flux<JMSListener.Delivery<JMSMessage>> messageFlux = JMSListener.flux(emitter ->
+        {
+            Serde rSerde = Serde.of(runContext, runContext.render(serdeType).as(SerdeType.class).orElseThrow(), schema, messageType);
+            int rMaxDecompressedSize = runContext.render(maxDecompressedSize).as(Integer.class).orElse(Compression.DEFAULT_MAX_DECOMPRESSED_SIZE);
+            boolean rShareConnection = runContext.render(shareConnection).as(Boolean.class).orElse(false);
+            Duration rMetricsInterval = runContext.render(metricsInterval).as(Duration.class).orElse(Duration.ofMinutes(1));
+
+            return new JMSListener<>(
+                runContext,
+                connectionFactoryConfig,
+                destination,
+                messageSelector,
+                message -> JMSMessage.of(message, rSerde, false, JMSMessage.Projection.ALL, rMaxDecompressedSize),
+                rMaxRecords * 2,
+                1,
+                null,
+                JMSListener.Reconnect.render(runContext, reconnect),
+                rShareConnection,
+                null,
+                rMetricsInterval,
+                message -> message,
+                emitter::next,
+                emitter::error
+            );
+        });
+
+        Flux<Batch> batches = messageFlux
+            .bufferTimeout(rMaxRecords, rMaxDuration)
+            .filter(deliveries -> !deliveries.isEmpty())
+            // bufferTimeout emits on the parallel timer scheduler, storing the batch is blocking I/O
+            .publishOn(Schedulers.boundedElastic())
+            .map(Rethrow.throwFunction(deliveries -> new Batch(
+                TriggerService.generateRealtimeExecution(this, conditionContext, context, this.store(runContext, deliveries)),
+                deliveries
+            )));
+
+        // Messages are acknowledged only once the execution of their stored batch has been handed over downstream
+        return JMSListener.emitThenAcknowledge(batches, Batch::execution, batch -> batch.deliveries().forEach(JMSListener.Delivery::emitted));
+    }
+
+    private Consume.Output store(RunContext runContext, List<JMSListener.Delivery<JMSMessage>> deliveries) throws Exception {
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+        try {
+            try (BufferedOutputStream outputFile = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+                for (JMSListener.Delivery<JMSMessage> delivery : deliveries) {
+                    FileSerde.write(outputFile, delivery.item());
+                }
+            }
+
+            URI uri = runContext.storage().putFile(tempFile);
+
+            return Consume.Output.builder()
+                .uri(uri)
+                .count(deliveries.size())
+                .build();
+        } finally {
+            // the trigger runs for as long as the flow is enabled, don't keep every batch on disk
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    private record Batch(Execution execution, List<JMSListener.Delivery<JMSMessage>> deliveries) {
+    }
+
+    // This method is available for a trigger interface but not used for realtime triggers.
+    public Optional<Execution> evaluate(ConditionContext conditionContext) throws Exception {
+        return Optional.empty();
+    }
+}
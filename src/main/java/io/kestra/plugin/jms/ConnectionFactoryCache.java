@@ -0,0 +1,118 @@
+package io.kestra.plugin.jms;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.utils.Rethrow;
+
+import at.conapi.oss.jms.adapter.impl.ConnectionFactoryAdapter;
+
+/**
+ * Worker-wide cache of {@link ConnectionFactoryAdapter} instances keyed on the rendered connection factory configuration.
+ * <p>
+ * Building a factory means creating a new provider classloader over the provider JARs and instantiating the factory
+ * reflectively or looking it up through JNDI, which dominates the latency of short tasks. Entries are evicted once they
+ * have not been used for their idle timeout; eviction only drops the references, as connections created from the factory
+ * may still be alive and rely on its classloader.
+ */
+final class ConnectionFactoryCache {
+    private static final ConnectionFactoryCache INSTANCE = new ConnectionFactoryCache();
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    private ConnectionFactoryCache() {
+    }
+
+    static ConnectionFactoryCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached factory for the key, building it with the loader on a miss.
+     * Hit, miss and eviction counts are reported as metrics on the given run context.
+     */
+    ConnectionFactoryAdapter get(
+        RunContext runContext,
+        Key key,
+        Duration idleTimeout,
+        Rethrow.FunctionChecked<Key, ConnectionFactoryAdapter, Exception> loader
+    ) throws Exception {
+        long now = System.nanoTime();
+
+        int evicted = this.evictIdle(now);
+        if (evicted > 0) {
+            runContext.metric(Counter.of("factory.cache.evictions", evicted));
+        }
+
+        Entry created = new Entry(idleTimeout.toNanos(), now);
+        Entry entry = this.entries.putIfAbsent(key, created);
+
+        if (entry == null) {
+            runContext.metric(Counter.of("factory.cache.misses", 1));
+            try {
+                ConnectionFactoryAdapter factory = loader.apply(key);
+                created.factory.complete(factory);
+                return factory;
+            } catch (Exception e) {
+                // never cache a failure, the next run will try again
+                this.entries.remove(key, created);
+                created.factory.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        runContext.metric(Counter.of("factory.cache.hits", 1));
+        entry.idleNanos = idleTimeout.toNanos();
+        entry.lastAccess = now;
+
+        try {
+            return entry.factory.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private int evictIdle(long now) {
+        int evicted = 0;
+        for (Map.Entry<Key, Entry> entry : this.entries.entrySet()) {
+            Entry value = entry.getValue();
+            if (value.factory.isDone() && now - value.lastAccess > value.idleNanos && this.entries.remove(entry.getKey(), value)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * The rendered configuration values that determine the created factory.
+     * Exactly one of {@code connectionFactoryClass} (direct) or {@code jndiConnectionFactoryName} (JNDI) is set.
+     */
+    record Key(
+        List<String> jarUrls,
+        boolean useFilteredClassLoader,
+        String connectionFactoryClass,
+        String jndiConnectionFactoryName,
+        Map<String, String> properties
+    ) {
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<ConnectionFactoryAdapter> factory = new CompletableFuture<>();
+        private volatile long idleNanos;
+        private volatile long lastAccess;
+
+        private Entry(long idleNanos, long lastAccess) {
+            this.idleNanos = idleNanos;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
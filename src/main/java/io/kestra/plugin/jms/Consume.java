@@ -4,7 +4,23 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
@@ -15,6 +31,9 @@ import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.FileSerde;
 import io.kestra.core.utils.Rethrow;
+import io.kestra.plugin.jms.configuration.DeduplicationConfig;
+import io.kestra.plugin.jms.serde.Compression;
+import io.kestra.plugin.jms.serde.Serde;
 import io.kestra.plugin.jms.serde.SerdeType;
 
 import at.conapi.oss.jms.adapter.AbstractDestination;
@@ -91,12 +110,26 @@ public class Consume extends AbstractJmsTask implements RunnableTask<Consume.Out
     @Builder.Default
     @Schema(
         title = "Deserialization format",
-        description = "STRING for text, JSON for JSON-formatted text, BYTES for binary data.",
+        description = "STRING for text, JSON for JSON-formatted text, BYTES for binary data, MSGPACK and CBOR for binary encodings of structured data, AVRO and PROTOBUF for binary encodings following `schema`.",
         defaultValue = "STRING"
     )
     @PluginProperty(group = "advanced")
     private Property<SerdeType> serdeType = Property.ofValue(SerdeType.STRING);
 
+    @Schema(
+        title = "Schema of AVRO and PROTOBUF bodies",
+        description = "For AVRO, the schema as JSON or the `kestra://` or `nsfile://` URI of a schema file. For PROTOBUF, the URI of a descriptor set generated with `protoc --include_imports --descriptor_set_out`. Loaded and compiled once per run."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> schema;
+
+    @Schema(
+        title = "Protobuf message type",
+        description = "Fully-qualified name of the message in the `schema` descriptor set, e.g. `com.acme.Order`; required for PROTOBUF."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> messageType;
+
     @Builder.Default
     @Schema(title = "Maximum messages to consume", description = "Rendered upper bound on messages; default 1")
     @PluginProperty(group = "advanced")
@@ -107,35 +140,158 @@ public class Consume extends AbstractJmsTask implements RunnableTask<Consume.Out
     @PluginProperty(group = "execution")
     private Property<Long> maxWaitTimeout = Property.ofValue(0L);
 
+    @Builder.Default
+    @Schema(
+        title = "Acknowledgement batch size",
+        description = "Rendered number of messages received before they are acknowledged together; default 1. With CLIENT_ACKNOWLEDGE, acknowledging a message acknowledges every message received before it on the session, so larger batches save broker round-trips. Messages still pending at the end are acknowledged once the output file is stored."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Integer> ackBatchSize = Property.ofValue(1);
+
+    @Schema(
+        title = "Acknowledgement interval (ms)",
+        description = "Rendered maximum time in milliseconds a received message stays unacknowledged before the pending batch is acknowledged, even if `ackBatchSize` is not reached."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Long> ackInterval;
+
+    @Builder.Default
+    @Schema(
+        title = "Acknowledge after upload",
+        description = "Acknowledge messages only once the output file has been flushed and stored in internal storage, so messages are redelivered if the worker dies before the upload completes. Overrides `ackBatchSize` and `ackInterval`.",
+        defaultValue = "false"
+    )
+    @PluginProperty(group = "processing")
+    private Property<Boolean> ackAfterUpload = Property.ofValue(false);
+
+    @Builder.Default
+    @Schema(
+        title = "Transacted session",
+        description = "Consume within a single transacted session that is committed only after the output file has been stored in internal storage, and rolled back on any failure: either every consumed message is stored or all are redelivered. Lets brokers prefetch and batch deliveries more aggressively; acknowledgement options are ignored. Requires a `concurrency` of 1, as separate sessions can't be committed atomically.",
+        defaultValue = "false"
+    )
+    @PluginProperty(group = "processing")
+    private Property<Boolean> transacted = Property.ofValue(false);
+
+    @Builder.Default
+    @Schema(
+        title = "Number of concurrent consumers",
+        description = "Rendered number of sessions and consumers opened on the connection, each receiving on its own virtual thread and feeding a single writer; default 1. `maxMessages` and `maxWaitTimeout` apply to all consumers together. Only supported for queues and shared topic subscriptions, as every other consumer of a topic receives every message. Ordering between consumers is not preserved. Not supported with `transacted`."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Integer> concurrency = Property.ofValue(1);
+
+    @Builder.Default
+    @Schema(
+        title = "Pipelined decoding",
+        description = "Decode messages (properties and body) on separate virtual threads instead of the receiving thread, connected to the receive and write stages by bounded buffers, so large payloads do not stall the broker delivery. The time spent in each stage is reported as the `stage.receive`, `stage.decode` and `stage.write` metrics.",
+        defaultValue = "false"
+    )
+    @PluginProperty(group = "processing")
+    private Property<Boolean> pipelined = Property.ofValue(false);
+
+    @Builder.Default
+    @Schema(
+        title = "Preserve order",
+        description = "With `pipelined`, write messages in the order they were received. When disabled, messages are written as soon as they are decoded, so a large payload does not hold back the smaller ones behind it.",
+        defaultValue = "true"
+    )
+    @PluginProperty(group = "processing")
+    private Property<Boolean> preserveOrder = Property.ofValue(true);
+
+    @Schema(
+        title = "Idle timeout (ms)",
+        description = "Rendered time in milliseconds after which consumption stops if no message was received, independently of `maxWaitTimeout`, so draining a queue ends as soon as it is empty."
+    )
+    @PluginProperty(group = "execution")
+    private Property<Long> idleTimeout;
+
+    @Schema(
+        title = "Included headers",
+        description = "Names of the only message properties extracted into `headers`; all of them when not set. An empty list skips reading properties altogether, otherwise only the listed ones are read, without enumerating the others."
+    )
+    @PluginProperty(group = "processing")
+    private Property<List<String>> includeHeaders;
+
+    @Schema(
+        title = "Excluded headers",
+        description = "Names of message properties never extracted into `headers`."
+    )
+    @PluginProperty(group = "processing")
+    private Property<List<String>> excludeHeaders;
+
+    @Schema(
+        title = "Excluded fields",
+        description = "Optional message fields that are not read from the message: any of `replyTo` (with `replyToType`), `expiration` and `contentEncoding`."
+    )
+    @PluginProperty(group = "processing")
+    private Property<List<String>> excludeFields;
+
+    @Schema(
+        title = "Redelivery deduplication",
+        description = "Drop redelivered messages that were already stored by a previous run of this task, e.g. when the acknowledgement was lost on a failover. Keys are remembered on the worker once the output is stored; only messages flagged `JMSRedelivered` are looked up. Lookups and hits are reported as the `deduplication.lookups` and `deduplication.hits` metrics."
+    )
+    @PluginProperty(group = "processing")
+    private DeduplicationConfig deduplication;
+
+    @Schema(
+        title = "Large message threshold (bytes)",
+        description = "Rendered body size in bytes above which a BytesMessage body is streamed in chunks into its own internal storage file instead of being read into memory; the message `data` is then the URI of that file, holding the body as received, without decompression nor deserialization. Not set keeps every body in memory."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Long> largeMessageThreshold;
+
+    @Builder.Default
+    @Schema(
+        title = "Maximum decompressed body size (bytes)",
+        description = "Rendered size in bytes a body compressed by `Produce` may decompress to; a larger body fails the run, so that a corrupt or hostile message can't exhaust the memory. Default 64 MiB (67108864). Bodies above `largeMessageThreshold` are stored as received and never decompressed."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Integer> maxDecompressedSize = Property.ofValue(Compression.DEFAULT_MAX_DECOMPRESSED_SIZE);
+
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final transient AtomicReference<ConsumeRunner> running = new AtomicReference<>();
+
     @Override
     public Output run(RunContext runContext) throws Exception {
-        // Render maxMessages once at the beginning
-        Integer rMaxMessages = runContext.render(this.maxMessages).as(Integer.class).orElseThrow();
-
         AtomicInteger total = new AtomicInteger();
         File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
         URI uri;
 
-        try (
-            ConsumeRunner consumer = new ConsumeRunner(runContext, this);
-            BufferedOutputStream outputFile = new BufferedOutputStream(new FileOutputStream(tempFile))
-        ) {
-
-            consumer.run(
-                Rethrow.throwConsumer(message ->
-                {
-                    FileSerde.write(outputFile, message);
-                    total.getAndIncrement();
-                }),
-                () -> this.ended(total, rMaxMessages)
-            );
-
-            outputFile.flush();
+        try (ConsumeRunner consumer = new ConsumeRunner(runContext, this)) {
+            this.running.set(consumer);
+
+            try (BufferedOutputStream outputFile = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+                consumer.run(
+                    Rethrow.throwConsumer(message ->
+                    {
+                        FileSerde.write(outputFile, message);
+                        total.getAndIncrement();
+                    })
+                );
+
+                outputFile.flush();
+            }
+
+            if (consumer.killed) {
+                // nothing is stored nor acknowledged, pending messages will be redelivered
+                throw new IllegalStateException("Consumption from JMS destination was killed");
+            }
+
             String rDestName = runContext.render(this.destination.getDestinationName());
             runContext.metric(Counter.of("messages", total.get(), "destination", rDestName));
-        }
 
-        uri = runContext.storage().putFile(tempFile);
+            uri = runContext.storage().putFile(tempFile);
+
+            // Messages still pending are only acknowledged (or committed) once they are safely stored
+            consumer.complete();
+            consumer.metrics.flush(runContext, rDestName);
+        } finally {
+            this.running.set(null);
+        }
 
         return Output.builder()
             .uri(uri)
@@ -143,8 +299,15 @@ public class Consume extends AbstractJmsTask implements RunnableTask<Consume.Out
             .build();
     }
 
-    private boolean ended(AtomicInteger count, Integer rMaxMessages) {
-        return rMaxMessages != null && count.get() >= rMaxMessages;
+    /**
+     * Wakes up the consumers blocked on receive, so the task stops right away instead of waiting for a message.
+     */
+    @Override
+    public void kill() {
+        ConsumeRunner consumer = this.running.get();
+        if (consumer != null) {
+            consumer.kill();
+        }
     }
 
     @Builder
@@ -161,77 +324,529 @@ public class Consume extends AbstractJmsTask implements RunnableTask<Consume.Out
      * A helper class that manages the JMS connection, session, and consumer lifecycle.
      */
     private class ConsumeRunner implements AutoCloseable {
+        private static final int BUFFER_PER_RECEIVER = 64;
+
         private final ConnectionAdapter connection;
-        private final SessionAdapter session;
-        private final ConsumerAdapter messageConsumer;
-        private final SerdeType rSerdeType;
+        private final List<Receiver> receivers = new ArrayList<>();
+        private final Serde serde;
+        private final int rMaxMessages;
         private final long rMaxWaitTimeout;
+        private final long rIdleTimeout;
+        private final int rAckBatchSize;
+        private final long rAckInterval;
+        private final boolean rAckAfterUpload;
+        private final boolean rTransacted;
+        private final boolean rPipelined;
+        private final boolean rPreserveOrder;
+        private final JMSDeduplicator deduplicator;
+        private final JMSMessage.Projection projection;
+        private final JMSLargeBodies largeBodies;
+        private final int rMaxDecompressedSize;
+
+        private final JMSConsumerMetrics metrics = new JMSConsumerMetrics("stage.write");
+
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        private final AtomicLong lastReceivedAt = new AtomicLong();
+        private volatile boolean killed;
 
         public ConsumeRunner(RunContext runContext, Consume task) throws Exception {
-            this.rSerdeType = runContext.render(task.serdeType).as(SerdeType.class).orElseThrow();
+            this.serde = Serde.of(runContext, runContext.render(task.serdeType).as(SerdeType.class).orElseThrow(), task.schema, task.messageType);
+            this.rMaxMessages = runContext.render(task.maxMessages).as(Integer.class).orElse(Integer.MAX_VALUE);
             this.rMaxWaitTimeout = runContext.render(task.maxWaitTimeout).as(Long.class).orElseThrow();
+            this.rIdleTimeout = runContext.render(task.idleTimeout).as(Long.class).orElse(0L);
+            this.rAckBatchSize = Math.max(1, runContext.render(task.ackBatchSize).as(Integer.class).orElse(1));
+            this.rAckInterval = runContext.render(task.ackInterval).as(Long.class).orElse(0L);
+            this.rAckAfterUpload = runContext.render(task.ackAfterUpload).as(Boolean.class).orElse(false);
+            this.rTransacted = runContext.render(task.transacted).as(Boolean.class).orElse(false);
+            this.rPipelined = runContext.render(task.pipelined).as(Boolean.class).orElse(false);
+            this.rPreserveOrder = runContext.render(task.preserveOrder).as(Boolean.class).orElse(true);
+            int rConcurrency = Math.max(1, runContext.render(task.concurrency).as(Integer.class).orElse(1));
+
+            if (rConcurrency > 1 && !task.destination.sharesMessages()) {
+                throw new IllegalArgumentException("`concurrency` greater than 1 is only supported for queues and shared topic subscriptions, every consumer of a topic receives every message.");
+            }
+            if (rConcurrency > 1 && this.rTransacted) {
+                throw new IllegalArgumentException("`transacted` requires a `concurrency` of 1, the sessions of concurrent consumers would be committed one by one rather than atomically.");
+            }
 
-            // Inherit the connection logic from the abstract base class
-            this.connection = task.createConnection(runContext);
+            this.projection = JMSMessage.Projection.render(runContext, task.includeHeaders, task.excludeHeaders, task.excludeFields);
+            this.largeBodies = JMSLargeBodies.of(runContext, runContext.render(task.largeMessageThreshold).as(Long.class).orElse(null));
+            this.rMaxDecompressedSize = runContext.render(task.maxDecompressedSize).as(Integer.class).orElse(Compression.DEFAULT_MAX_DECOMPRESSED_SIZE);
+            this.deduplicator = JMSDeduplicator.of(runContext, task.deduplication, task.getId(), runContext.render(task.destination.getDestinationName()));
+
+            //  Sessions use CLIENT_ACKNOWLEDGE for at-least-once delivery semantics,
+            //  or are transacted and committed once the output is stored
+            int sessionMode = this.rTransacted ? SessionAdapter.SESSION_TRANSACTED : SessionAdapter.CLIENT_ACKNOWLEDGE;
+
+            // Pooled connections keep the ExceptionListener of their pool
+            if (task.getConnectionPool() == null) {
+                // Inherit the connection logic from the abstract base class
+                this.connection = task.createConnection(runContext);
+                try {
+                    task.destination.applyClientId(runContext, this.connection, true);
+                } catch (Exception e) {
+                    closeQuietly(this.connection);
+                    throw e;
+                }
+                this.connection.setExceptionListener(
+                    exception -> runContext.logger().error("Asynchronous JMS Connection Error: {}", exception.getMessage(), exception)
+                );
+            } else {
+                this.connection = null;
+            }
 
-            this.connection.setExceptionListener(
-                exception -> runContext.logger().error("Asynchronous JMS Connection Error: {}", exception.getMessage(), exception)
-            );
+            try {
+                String destName = runContext.render(task.destination.getDestinationName());
+                String destType = task.destination.getDestinationType() == AbstractDestination.DestinationType.QUEUE ? SessionAdapter.QUEUE : SessionAdapter.TOPIC;
+                String destinationUrl = String.format("%s://%s", destType, destName);
+
+                // allow dynamic message selector use cases
+                String msgSelector = runContext.render(task.getMessageSelector());
+
+                // JMS sessions are single-threaded, so each concurrent consumer gets its own session
+                for (int i = 0; i < rConcurrency; i++) {
+                    if (this.connection != null) {
+                        this.receivers.add(new Receiver(runContext, JMSConnectionPool.createSession(this.connection, sessionMode), null, destinationUrl, msgSelector));
+                        continue;
+                    }
+
+                    JMSConnectionPool.Lease lease = task.openSession(runContext, sessionMode);
+                    try {
+                        task.destination.applyClientId(runContext, lease.connection(), false);
+                    } catch (Exception e) {
+                        lease.close();
+                        throw e;
+                    }
+                    try {
+                        this.receivers.add(new Receiver(runContext, lease.session(), lease, destinationUrl, msgSelector));
+                    } catch (Exception e) {
+                        lease.invalidate();
+                        lease.close();
+                        throw e;
+                    }
+                }
 
-            //  Create the Session object with CLIENT_ACKNOWLEDGE for at-least-once delivery semantics
-            this.session = (SessionAdapter) this.connection.createSession(false, SessionAdapter.CLIENT_ACKNOWLEDGE);
+                // Start the connection now that all resources are set up, starting a pooled one again is a no-op
+                if (this.connection != null) {
+                    this.connection.start();
+                } else {
+                    for (Receiver receiver : this.receivers) {
+                        receiver.lease.connection().start();
+                    }
+                }
 
-            //  Create the Destination object depending on the Destination Type (QUEUE or TOPIC)
-            String destName = runContext.render(task.destination.getDestinationName());
-            String destType = task.destination.getDestinationType() == AbstractDestination.DestinationType.QUEUE ? SessionAdapter.QUEUE : SessionAdapter.TOPIC;
-            String destinationUrl = String.format("%s://%s", destType, destName);
-            AbstractDestination jmsDestination = this.session.createDestination(destinationUrl);
+                runContext.logger().info("JMS Consumer started for destination '{}' with {} consumer(s)", destName, rConcurrency);
+            } catch (Exception e) {
+                this.close();
+                throw e;
+            }
+        }
 
-            // allow dynamic message selector use cases
-            String msgSelector = runContext.render(task.getMessageSelector());
+        public void run(java.util.function.Consumer<JMSMessage> messageProcessor) throws Exception {
+            long deadline = this.rMaxWaitTimeout > 0 ? System.currentTimeMillis() + this.rMaxWaitTimeout : 0;
+            this.lastReceivedAt.set(System.currentTimeMillis());
 
-            this.messageConsumer = (ConsumerAdapter) this.session.createConsumer(jmsDestination, msgSelector);
+            if (this.receivers.size() == 1 && !this.rPipelined) {
+                Receiver receiver = this.receivers.getFirst();
+                int count = 0;
 
-            // Start the connection now that all resources are set up
-            this.connection.start();
+                while (count < this.rMaxMessages) {
+                    long start = System.nanoTime();
+                    AbstractMessage message = receiver.receive(deadline);
+                    this.metrics.addReceiveTime(System.nanoTime() - start);
+                    if (message == null) {
+                        break; // Max wait or idle timeout reached, or killed
+                    }
 
-            runContext.logger().info("JMS Consumer started for destination '{}'", destName);
-        }
+                    JMSMessage decoded = this.decode(message);
 
-        public void run(java.util.function.Consumer<JMSMessage> messageProcessor, java.util.function.Supplier<Boolean> endCondition) throws Exception {
-            long startTime = System.currentTimeMillis();
+                    start = System.nanoTime();
+                    messageProcessor.accept(decoded);
+                    this.metrics.addOutputTime(System.nanoTime() - start);
+                    count++;
 
-            while (!endCondition.get()) {
-                long waitTime = 100; // Default short poll
-                if (this.rMaxWaitTimeout > 0) {
-                    long remainingTime = (startTime + this.rMaxWaitTimeout) - System.currentTimeMillis();
-                    if (remainingTime <= 0)
-                        break; // Max duration reached
-                    waitTime = remainingTime;
+                    receiver.written();
+                    receiver.processed(message);
                 }
+                return;
+            }
 
-                AbstractMessage message = this.messageConsumer.receive(waitTime);
+            this.runStaged(messageProcessor, deadline);
+        }
 
-                if (message == null) {
-                    if (this.rMaxWaitTimeout > 0)
-                        break; // Timeout on receive with max duration set
-                    else
-                        continue; // No message on a short poll, just loop again
+        /**
+         * Each receiver runs on its own virtual thread and hands messages over a bounded buffer to the calling
+         * thread, which is the single writer. Receivers reserve a slot before each receive, so exactly
+         * {@code maxMessages} messages are consumed across all of them.
+         * <p>
+         * When pipelined, decoding runs on its own virtual threads: in order, the receiver buffers the pending decode
+         * so the writer waits on it; out of order, the decoder buffers the message once it is decoded. In both cases a
+         * buffer slot is taken before receiving, so the amount of work in flight stays bounded.
+         * <p>
+         * Acknowledging a message acknowledges every message received on its session, so a receiver only acknowledges
+         * once the writer has written every message it received, waiting for it when an acknowledgement is due.
+         */
+        private void runStaged(java.util.function.Consumer<JMSMessage> messageProcessor, long deadline) throws Exception {
+            int capacity = this.receivers.size() * BUFFER_PER_RECEIVER;
+            BlockingQueue<Staged> buffer = new ArrayBlockingQueue<>(capacity);
+            Semaphore slots = new Semaphore(capacity);
+            AtomicInteger reserved = new AtomicInteger();
+            AtomicBoolean stopped = this.stopped;
+            AtomicReference<Exception> failure = new AtomicReference<>();
+            CountDownLatch finished = new CountDownLatch(this.receivers.size());
+            List<Thread> threads = new ArrayList<>();
+
+            try (ExecutorService decoders = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Receiver receiver : this.receivers) {
+                    threads.add(Thread.ofVirtual().name("jms-consume-" + threads.size()).start(() ->
+                    {
+                        try {
+                            while (!stopped.get()) {
+                                if (reserved.incrementAndGet() > this.rMaxMessages) {
+                                    reserved.decrementAndGet();
+                                    break;
+                                }
+
+                                if (!slots.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                                    reserved.decrementAndGet();
+                                    continue;
+                                }
+
+                                long start = System.nanoTime();
+                                AbstractMessage message = receiver.receive(deadline);
+                                this.metrics.addReceiveTime(System.nanoTime() - start);
+                                if (message == null) {
+                                    slots.release();
+                                    reserved.decrementAndGet();
+                                    break;
+                                }
+
+                                if (!this.rPipelined) {
+                                    buffer.add(new Staged(receiver, CompletableFuture.completedFuture(this.decode(message))));
+                                } else if (this.rPreserveOrder) {
+                                    buffer.add(new Staged(receiver, CompletableFuture.supplyAsync(Rethrow.throwSupplier(() -> this.decode(message)), decoders)));
+                                } else {
+                                    CompletableFuture.supplyAsync(Rethrow.throwSupplier(() -> this.decode(message)), decoders)
+                                        .whenComplete((decoded, throwable) -> buffer.add(new Staged(
+                                            receiver,
+                                            throwable == null ? CompletableFuture.completedFuture(decoded) : CompletableFuture.failedFuture(throwable)
+                                        )));
+                                }
+
+                                // only acknowledged once written, see acknowledgeIfDue()
+                                receiver.processed(message);
+                            }
+                        } catch (Exception e) {
+                            failure.compareAndSet(null, e);
+                            stopped.set(true);
+                        } finally {
+                            finished.countDown();
+                        }
+                    }));
                 }
 
-                messageProcessor.accept(JMSMessage.of(message, this.rSerdeType));
+                try {
+                    while (failure.get() == null) {
+                        Staged pending = buffer.poll(100, TimeUnit.MILLISECONDS);
+                        if (pending != null) {
+                            JMSMessage decoded;
+                            try {
+                                decoded = pending.decoded().get();
+                            } catch (ExecutionException e) {
+                                Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+                                throw cause instanceof Exception exception ? exception : e;
+                            }
+
+                            long start = System.nanoTime();
+                            messageProcessor.accept(decoded);
+                            this.metrics.addOutputTime(System.nanoTime() - start);
+                            pending.receiver().written();
+                            slots.release();
+                        } else if (finished.getCount() == 0 && slots.availablePermits() == capacity) {
+                            // every receiver is done and no message is left in flight
+                            break;
+                        }
+                    }
+                } finally {
+                    if (finished.getCount() > 0) {
+                        // the writer failed, unblock the receivers still waiting for a message
+                        this.stop();
+                    }
+                    for (Thread thread : threads) {
+                        thread.join();
+                    }
+                }
+            }
+
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+        }
+
+        /**
+         * A message handed over to the writer, with the receiver it was received by.
+         */
+        private record Staged(Receiver receiver, CompletableFuture<JMSMessage> decoded) {
+        }
+
+        private JMSMessage decode(AbstractMessage message) throws Exception {
+            long start = System.nanoTime();
+            try {
+                // the messages are only written to the output file, JSON bodies are transcoded to Ion while writing
+                return JMSMessage.of(message, this.serde, true, this.projection, this.largeBodies, this.rMaxDecompressedSize);
+            } finally {
+                this.metrics.addDecodeTime(System.nanoTime() - start);
+            }
+        }
+
+        private void kill() {
+            this.killed = true;
+            this.stop();
+        }
+
+        /**
+         * Closing a consumer is the only JMS operation allowed from another thread, and makes a pending receive return.
+         */
+        private void stop() {
+            this.stopped.set(true);
+            for (Receiver receiver : this.receivers) {
+                closeQuietly(receiver.messageConsumer);
+            }
+        }
 
-                // Acknowledge message after successful processing
-                message.acknowledge();
+        /**
+         * Completes the consumption once the output is stored: commits the transacted sessions,
+         * or acknowledges the messages still pending.
+         */
+        public void complete() throws Exception {
+            for (Receiver receiver : this.receivers) {
+                receiver.complete();
             }
         }
 
         @Override
         public void close() {
+            for (Receiver receiver : this.receivers) {
+                receiver.close();
+            }
             // Use the quiet closing utility from the abstract base class
-            closeQuietly(this.messageConsumer);
-            closeQuietly(this.session);
             closeQuietly(this.connection);
         }
+
+        /**
+         * A session and its consumer, used by a single thread at a time, with the acknowledgement state of the session.
+         */
+        private class Receiver {
+            private final SessionAdapter session;
+            private final JMSConnectionPool.Lease lease;
+            private final ConsumerAdapter messageConsumer;
+            private boolean completed;
+
+            private AbstractMessage lastUnacknowledged;
+            private int unacknowledged;
+            private long firstUnacknowledgedAt;
+
+            // messages handed over by this receiver, and the ones the writer wrote to the output file, guarded by this
+            private long received;
+            private long written;
+
+            // keys of the messages received, remembered by the deduplicator once the output is stored
+            private long[] keys = new long[0];
+            private int keyCount;
+
+            /**
+             * @param lease The lease of a pooled session, or null for a session of the dedicated connection.
+             */
+            private Receiver(RunContext runContext, SessionAdapter session, JMSConnectionPool.Lease lease, String destinationUrl, String msgSelector) throws Exception {
+                this.session = session;
+                this.lease = lease;
+
+                //  Create the Destination object depending on the Destination Type (QUEUE or TOPIC)
+                AbstractDestination jmsDestination = this.session.createDestination(destinationUrl);
+                this.messageConsumer = destination.createConsumer(runContext, this.session, jmsDestination, msgSelector);
+            }
+
+            /**
+             * Blocks until a message is received, only waking up early to acknowledge a batch that is due.
+             *
+             * @return the message, or null once the max wait or idle timeout is reached or the consumption is stopped.
+             */
+            private AbstractMessage receive(long deadline) throws Exception {
+                while (!stopped.get()) {
+                    this.acknowledgeIfDue();
+
+                    long waitTime = this.waitTime(deadline);
+                    if (waitTime < 0) {
+                        return null;
+                    }
+
+                    AbstractMessage message;
+                    try {
+                        message = this.messageConsumer.receive(waitTime);
+                    } catch (Exception e) {
+                        if (stopped.get()) {
+                            return null; // the consumer was closed by stop()
+                        }
+                        throw e;
+                    }
+
+                    if (message != null) {
+                        lastReceivedAt.set(System.currentTimeMillis());
+                        metrics.received(message);
+                        if (deduplicator != null && this.isDuplicate(message)) {
+                            // already stored by a previous run, only acknowledged
+                            this.processed(message);
+                            continue;
+                        }
+                        synchronized (this) {
+                            this.received++;
+                        }
+                        return message;
+                    }
+                }
+                return null;
+            }
+
+            private boolean isDuplicate(AbstractMessage message) throws Exception {
+                long key = deduplicator.key(message);
+                JMSDeduplicator.Lookup lookup = deduplicator.lookup(message, key);
+                if (lookup != JMSDeduplicator.Lookup.SKIPPED) {
+                    metrics.deduplicationLookup(lookup == JMSDeduplicator.Lookup.HIT);
+                }
+                if (lookup == JMSDeduplicator.Lookup.HIT) {
+                    return true;
+                }
+
+                if (this.keyCount == this.keys.length) {
+                    this.keys = Arrays.copyOf(this.keys, Math.max(16, this.keyCount * 2));
+                }
+                this.keys[this.keyCount++] = key;
+                return false;
+            }
+
+            /**
+             * @return the time to wait for the next message, 0 to wait indefinitely, or -1 if no wait is left.
+             */
+            private long waitTime(long deadline) {
+                long now = System.currentTimeMillis();
+                long waitTime = Long.MAX_VALUE;
+
+                if (deadline > 0) {
+                    waitTime = deadline - now;
+                }
+                if (rIdleTimeout > 0) {
+                    waitTime = Math.min(waitTime, lastReceivedAt.get() + rIdleTimeout - now);
+                }
+                if (waitTime <= 0) {
+                    return -1;
+                }
+
+                if (rAckInterval > 0 && this.unacknowledged > 0 && !rTransacted && !rAckAfterUpload) {
+                    waitTime = Math.min(waitTime, Math.max(1, this.firstUnacknowledgedAt + rAckInterval - now));
+                }
+
+                return waitTime == Long.MAX_VALUE ? 0 : waitTime;
+            }
+
+            private void processed(AbstractMessage message) throws Exception {
+                // Acknowledge message after successful processing, batched if requested
+                if (this.unacknowledged++ == 0) {
+                    this.firstUnacknowledgedAt = System.currentTimeMillis();
+                }
+                this.lastUnacknowledged = message;
+                this.acknowledgeIfDue();
+            }
+
+            private void acknowledgeIfDue() throws Exception {
+                if (rTransacted || rAckAfterUpload || this.unacknowledged == 0) {
+                    return;
+                }
+
+                if (this.unacknowledged >= rAckBatchSize || (rAckInterval > 0 && System.currentTimeMillis() - this.firstUnacknowledgedAt >= rAckInterval)) {
+                    if (this.awaitWritten()) {
+                        this.acknowledgePending();
+                    }
+                }
+            }
+
+            /**
+             * Called by the writer once a message of this receiver is written to the output file.
+             */
+            private synchronized void written() {
+                this.written++;
+                this.notifyAll();
+            }
+
+            /**
+             * Waits for the writer to write every message received so far, as the acknowledgement covers all of them.
+             *
+             * @return false if the consumption was stopped in the meantime, nothing must be acknowledged then.
+             */
+            private synchronized boolean awaitWritten() throws InterruptedException {
+                while (this.written < this.received) {
+                    if (stopped.get()) {
+                        return false;
+                    }
+                    this.wait(100);
+                }
+                return true;
+            }
+
+            private void complete() throws Exception {
+                if (deduplicator != null) {
+                    // remembered before acknowledging, a lost acknowledgement then only causes a dropped redelivery
+                    deduplicator.record(this.keys, this.keyCount);
+                }
+
+                if (rTransacted) {
+                    long start = System.nanoTime();
+                    this.session.commit();
+                    metrics.acknowledged(System.nanoTime() - start);
+                } else {
+                    this.acknowledgePending();
+                }
+                this.completed = true;
+            }
+
+            /**
+             * Acknowledges every message received so far. With CLIENT_ACKNOWLEDGE, acknowledging the last received
+             * message acknowledges all the previous ones on the session in a single broker round-trip.
+             */
+            private void acknowledgePending() throws Exception {
+                if (this.lastUnacknowledged == null) {
+                    return;
+                }
+
+                long start = System.nanoTime();
+                this.lastUnacknowledged.acknowledge();
+                metrics.acknowledged(System.nanoTime() - start);
+                this.lastUnacknowledged = null;
+                this.unacknowledged = 0;
+            }
+
+            private void close() {
+                if (rTransacted && !this.completed) {
+                    // Every message received in this run will be redelivered
+                    try {
+                        this.session.rollback();
+                    } catch (Exception e) {
+                        // Closing the session rolls back as well
+                    }
+                }
+
+                closeQuietly(this.messageConsumer);
+
+                if (this.lease == null) {
+                    closeQuietly(this.session);
+                    return;
+                }
+
+                if (!this.completed) {
+                    // unacknowledged messages are only redelivered once their session is closed
+                    this.lease.invalidate();
+                }
+                this.lease.close();
+            }
+        }
     }
 }
@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
+import java.time.Duration;
 import java.util.*;
 
 import javax.naming.Context;
@@ -17,30 +18,75 @@ import at.conapi.oss.jms.adapter.impl.ConnectionFactoryAdapter;
 
 public class JMSConnectionFactory {
 
+    /**
+     * Returns a ConnectionFactoryAdapter for the given configuration.
+     * <p>
+     * The configuration is rendered first and the rendered values are used as the key of a worker-wide cache,
+     * so repeated runs with the same configuration reuse the provider classloader and the instantiated (or
+     * JNDI looked-up) factory instead of building them again. Set {@code cacheIdleTimeout} to zero to bypass the cache.
+     *
+     * @param runContext The Kestra RunContext for variable rendering and metrics.
+     * @param config The connection factory configuration.
+     * @return A ready-to-use ConnectionFactoryAdapter.
+     * @throws Exception if rendering, class loading or the JNDI lookup fails.
+     */
     public ConnectionFactoryAdapter create(RunContext runContext, ConnectionFactoryConfig config) throws Exception {
+        return this.create(runContext, config, this.renderKey(runContext, config));
+    }
+
+    ConnectionFactoryAdapter create(RunContext runContext, ConnectionFactoryConfig config, ConnectionFactoryCache.Key key) throws Exception {
+        Duration rCacheIdleTimeout = runContext.render(config.getCacheIdleTimeout()).as(Duration.class).orElse(Duration.ZERO);
+        if (rCacheIdleTimeout.isZero() || rCacheIdleTimeout.isNegative()) {
+            return this.build(key);
+        }
+
+        return ConnectionFactoryCache.getInstance().get(runContext, key, rCacheIdleTimeout, this::build);
+    }
 
+    /**
+     * Renders every part of the configuration that influences the created factory into a cache key.
+     */
+    ConnectionFactoryCache.Key renderKey(RunContext runContext, ConnectionFactoryConfig config) throws Exception {
         // Step 1: Resolve the provider JAR paths to a list of URLs using the utility method.
-        List<URL> jarUrls = resolveProviderJarUrls(runContext, config.getProviderJarPaths());
+        // URL#equals resolves host names, so the cache key keeps their external form instead.
+        List<String> jarUrls = resolveProviderJarUrls(runContext, config.getProviderJarPaths()).stream()
+            .map(URL::toExternalForm)
+            .toList();
 
-        // Step 2: Instantiate your common JmsFactory with the classloader
-        // Pass the current plugin's classloader as parent to ensure proper JMS API delegation
         // Use FilteredClassLoader only when explicitly enabled (for providers like SonicMQ that bundle JMS API classes)
         boolean rUseFilteredClassLoader = runContext.render(config.getUseFilteredClassLoader()).as(Boolean.class).orElse(false);
+
+        if (config instanceof ConnectionFactoryConfig.Direct directConfig) {
+            return renderDirectKey(runContext, directConfig, jarUrls, rUseFilteredClassLoader);
+        }
+        if (config instanceof ConnectionFactoryConfig.Jndi jndiConfig) {
+            return renderJndiKey(runContext, jndiConfig, jarUrls, rUseFilteredClassLoader);
+        }
+
+        throw new IllegalArgumentException("Unsupported ConnectionFactoryConfig type.");
+    }
+
+    private ConnectionFactoryAdapter build(ConnectionFactoryCache.Key key) throws Exception {
+        List<URL> jarUrls = new ArrayList<>();
+        for (String jarUrl : key.jarUrls()) {
+            jarUrls.add(URI.create(jarUrl).toURL());
+        }
+
+        // Step 2: Instantiate your common JmsFactory with the classloader
+        // Pass the current plugin's classloader as parent to ensure proper JMS API delegation
         JmsFactory jmsFactory = new JmsFactory(
             jarUrls.toArray(new URL[0]),
             this.getClass().getClassLoader(),
-            rUseFilteredClassLoader
+            key.useFilteredClassLoader()
         );
 
         // Step 3: Delegate the creation logic to the JmsFactory
-        if (config instanceof ConnectionFactoryConfig.Direct directConfig) {
-            return createDirectConnectionFactory(runContext, directConfig, jmsFactory);
-        }
-        if (config instanceof ConnectionFactoryConfig.Jndi jndiConfig) {
-            return createJndiConnectionFactory(runContext, jndiConfig, jmsFactory);
+        if (key.jndiConnectionFactoryName() != null) {
+            Hashtable<String, String> jndiProperties = new Hashtable<>(key.properties());
+            return (ConnectionFactoryAdapter) jmsFactory.lookupConnectionFactory(jndiProperties, key.jndiConnectionFactoryName());
         }
 
-        throw new IllegalArgumentException("Unsupported ConnectionFactoryConfig type.");
+        return (ConnectionFactoryAdapter) jmsFactory.createConnectionFactory(key.connectionFactoryClass(), new HashMap<>(key.properties()));
     }
 
     /**
@@ -66,7 +112,7 @@ public class JMSConnectionFactory {
         return jarUrls;
     }
 
-    private ConnectionFactoryAdapter createDirectConnectionFactory(RunContext runContext, ConnectionFactoryConfig.Direct config, JmsFactory jmsFactory) throws Exception {
+    private ConnectionFactoryCache.Key renderDirectKey(RunContext runContext, ConnectionFactoryConfig.Direct config, List<String> jarUrls, boolean useFilteredClassLoader) throws Exception {
         Map<String, String> properties = new HashMap<>();
         if (config.getConnectionProperties() != null) {
             for (Map.Entry<String, String> entry : config.getConnectionProperties().entrySet()) {
@@ -74,11 +120,11 @@ public class JMSConnectionFactory {
             }
         }
         String rConnectionFactoryClass = runContext.render(config.getConnectionFactoryClass()).as(String.class).orElseThrow();
-        return (ConnectionFactoryAdapter) jmsFactory.createConnectionFactory(rConnectionFactoryClass, properties);
+        return new ConnectionFactoryCache.Key(jarUrls, useFilteredClassLoader, rConnectionFactoryClass, null, Collections.unmodifiableMap(properties));
     }
 
-    private ConnectionFactoryAdapter createJndiConnectionFactory(RunContext runContext, ConnectionFactoryConfig.Jndi config, JmsFactory jmsFactory) throws Exception {
-        Hashtable<String, String> jndiProperties = new Hashtable<>();
+    private ConnectionFactoryCache.Key renderJndiKey(RunContext runContext, ConnectionFactoryConfig.Jndi config, List<String> jarUrls, boolean useFilteredClassLoader) throws Exception {
+        Map<String, String> jndiProperties = new HashMap<>();
         String rJndiInitialContextFactory = runContext.render(config.getJndiInitialContextFactory()).as(String.class).orElseThrow();
         String rJndiProviderUrl = runContext.render(config.getJndiProviderUrl()).as(String.class).orElseThrow();
         jndiProperties.put(Context.INITIAL_CONTEXT_FACTORY, rJndiInitialContextFactory);
@@ -105,7 +151,7 @@ public class JMSConnectionFactory {
         }
 
         String rJndiConnectionFactoryName = runContext.render(config.getJndiConnectionFactoryName()).as(String.class).orElseThrow();
-        return (ConnectionFactoryAdapter) jmsFactory.lookupConnectionFactory(jndiProperties, rJndiConnectionFactoryName);
+        return new ConnectionFactoryCache.Key(jarUrls, useFilteredClassLoader, null, rJndiConnectionFactoryName, Collections.unmodifiableMap(jndiProperties));
     }
 
     /**
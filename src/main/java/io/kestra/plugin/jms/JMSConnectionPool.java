@@ -0,0 +1,443 @@
+package io.kestra.plugin.jms;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+import io.kestra.plugin.jms.configuration.ConnectionPoolConfig;
+
+import at.conapi.oss.jms.adapter.impl.ConnectionAdapter;
+import at.conapi.oss.jms.adapter.impl.ConnectionFactoryAdapter;
+import at.conapi.oss.jms.adapter.impl.SessionAdapter;
+
+/**
+ * A worker-wide pool of JMS connections and sessions, shared by all tasks using the same rendered
+ * connection factory configuration and credentials.
+ * <p>
+ * The number of sessions leased at the same time is bounded by {@code maxConnections * maxSessionsPerConnection};
+ * borrowers wait up to the borrow timeout for a free slot. Connections reported as broken by their
+ * ExceptionListener are evicted instead of being handed out again, and connections without leased sessions
+ * are closed once idle for longer than the idle timeout.
+ * <p>
+ * Idle connections are evicted when a session is released and by a periodic sweep, so that a pool no longer
+ * borrowed from doesn't keep its broker connections open. The sweep also removes pools left without any
+ * connection; a task still holding such a retired pool borrows from a new one instead.
+ */
+final class JMSConnectionPool {
+    private static final Map<Key, JMSConnectionPool> POOLS = new ConcurrentHashMap<>();
+    private static final Duration SWEEP_INTERVAL = Duration.ofSeconds(30);
+    private static final ScheduledExecutorService SWEEPER = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().daemon().name("jms-connection-pool-sweeper").factory()
+    );
+
+    static {
+        SWEEPER.scheduleWithFixedDelay(JMSConnectionPool::sweep, SWEEP_INTERVAL.toMillis(), SWEEP_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private final Key key;
+    private final ConnectionFactoryAdapter factory;
+    private final String username;
+    private final String password;
+    private final Settings settings;
+    private final Semaphore permits;
+
+    // guarded by this
+    private final List<PooledConnection> connections = new ArrayList<>();
+    private boolean retired;
+
+    private JMSConnectionPool(Key key, ConnectionFactoryAdapter factory, String username, String password, Settings settings) {
+        this.key = key;
+        this.factory = factory;
+        this.username = username;
+        this.password = password;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxConnections() * settings.maxSessionsPerConnection(), true);
+    }
+
+    /**
+     * Leases a session from the pool of the rendered configuration, reusing an idle one of the same kind when possible.
+     * The lease must be closed to give the session back to the pool.
+     *
+     * @param sessionMode {@link SessionAdapter#SESSION_TRANSACTED} or the acknowledgement mode of the session.
+     */
+    static Lease borrow(RunContext runContext, ConnectionFactoryConfig factoryConfig, ConnectionPoolConfig poolConfig, int sessionMode) throws Exception {
+        return borrow(runContext, factoryConfig, poolConfig, sessionMode, true);
+    }
+
+    /**
+     * Leases a session only if one is available right away, see {@link #borrow(RunContext, ConnectionFactoryConfig, ConnectionPoolConfig, int)}.
+     *
+     * @return the lease, or null when every session slot of the pool is leased.
+     */
+    static Lease tryBorrow(RunContext runContext, ConnectionFactoryConfig factoryConfig, ConnectionPoolConfig poolConfig, int sessionMode) throws Exception {
+        return borrow(runContext, factoryConfig, poolConfig, sessionMode, false);
+    }
+
+    private static Lease borrow(RunContext runContext, ConnectionFactoryConfig factoryConfig, ConnectionPoolConfig poolConfig, int sessionMode, boolean wait) throws Exception {
+        while (true) {
+            JMSConnectionPool pool = of(runContext, factoryConfig, poolConfig);
+            Lease lease = pool.borrow(sessionMode, wait);
+            if (lease != null || !pool.isRetired()) {
+                return lease;
+            }
+            // the pool was retired by the sweep in the meantime, the next one is created from scratch
+        }
+    }
+
+    /**
+     * Returns the pool for the rendered configuration, creating it on first use.
+     * The pool settings of the first caller win for the lifetime of the pool.
+     */
+    private static JMSConnectionPool of(RunContext runContext, ConnectionFactoryConfig factoryConfig, ConnectionPoolConfig poolConfig) throws Exception {
+        JMSConnectionFactory factoryService = new JMSConnectionFactory();
+        ConnectionFactoryCache.Key factoryKey = factoryService.renderKey(runContext, factoryConfig);
+
+        String rUsername = factoryConfig.getUsername() != null ? runContext.render(factoryConfig.getUsername()) : null;
+        String rPassword = factoryConfig.getPassword() != null ? runContext.render(factoryConfig.getPassword()) : null;
+        Key key = Key.of(factoryKey, rUsername, rPassword);
+
+        JMSConnectionPool pool = POOLS.get(key);
+        if (pool != null) {
+            return pool;
+        }
+
+        ConnectionFactoryAdapter factory = factoryService.create(runContext, factoryConfig, factoryKey);
+        Settings settings = new Settings(
+            Math.max(1, runContext.render(poolConfig.getMaxConnections()).as(Integer.class).orElse(2)),
+            Math.max(1, runContext.render(poolConfig.getMaxSessionsPerConnection()).as(Integer.class).orElse(10)),
+            runContext.render(poolConfig.getIdleTimeout()).as(Duration.class).orElse(Duration.ofMinutes(5)),
+            runContext.render(poolConfig.getBorrowTimeout()).as(Duration.class).orElse(Duration.ofSeconds(30)),
+            runContext.render(poolConfig.getValidateOnBorrow()).as(Boolean.class).orElse(true)
+        );
+
+        return POOLS.computeIfAbsent(key, k -> new JMSConnectionPool(k, factory, rUsername, rPassword, settings));
+    }
+
+    /**
+     * Evicts the idle connections of every pool, and removes the pools left without connection nor lease.
+     */
+    private static void sweep() {
+        long now = System.nanoTime();
+        for (JMSConnectionPool pool : POOLS.values()) {
+            try {
+                synchronized (pool) {
+                    pool.evict(now);
+                    if (pool.connections.isEmpty() && pool.permits.availablePermits() == pool.settings.maxConnections() * pool.settings.maxSessionsPerConnection()) {
+                        pool.retired = true;
+                        POOLS.remove(pool.key, pool);
+                    }
+                }
+            } catch (Exception e) {
+                // a failed sweep must not cancel the next ones
+            }
+        }
+    }
+
+    /**
+     * @param wait Whether to wait up to the borrow timeout for a free session slot, otherwise null is returned right away.
+     * @return the lease, or null if the pool was retired and must not be used anymore.
+     */
+    private Lease borrow(int sessionMode, boolean wait) throws Exception {
+        if (!wait) {
+            if (!this.permits.tryAcquire()) {
+                return null;
+            }
+        } else if (!this.permits.tryAcquire(this.settings.borrowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("No pooled JMS session became available within " + this.settings.borrowTimeout());
+        }
+
+        PooledConnection pooled = null;
+        try {
+            SessionAdapter session;
+            boolean opening = false;
+            synchronized (this) {
+                if (this.retired) {
+                    this.permits.release();
+                    return null;
+                }
+                this.evict(System.nanoTime());
+                pooled = this.select();
+                if (pooled == null) {
+                    // reserve the slot of a new connection, opened outside the lock so that a slow or unreachable
+                    // broker doesn't block the other borrows and releases of the pool
+                    pooled = new PooledConnection();
+                    this.connections.add(pooled);
+                    opening = true;
+                }
+                pooled.leased++;
+                session = pooled.idleSessions(sessionMode).pollFirst();
+            }
+
+            if (opening) {
+                this.open(pooled);
+            }
+            // borrowers that picked a connection still being opened wait for it
+            ConnectionAdapter connection = pooled.await(this.settings.borrowTimeout());
+            if (session == null) {
+                session = createSession(connection, sessionMode);
+            }
+
+            return new Lease(this, pooled, connection, session, sessionMode);
+        } catch (Exception e) {
+            if (pooled != null) {
+                synchronized (this) {
+                    pooled.leased--;
+                }
+            }
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    private synchronized boolean isRetired() {
+        return this.retired;
+    }
+
+    /**
+     * Picks the least loaded healthy connection with a free session slot, connections being opened included.
+     * A new one is only opened when all are busy: since leases are bounded by the permits, this never opens more
+     * than {@code maxConnections} healthy connections.
+     *
+     * @return the connection, or null when a new one must be opened.
+     */
+    private PooledConnection select() {
+        PooledConnection selected = null;
+        for (PooledConnection pooled : this.connections) {
+            if (pooled.broken) {
+                continue;
+            }
+            if (pooled.leased < this.settings.maxSessionsPerConnection() && (selected == null || pooled.leased < selected.leased)) {
+                selected = pooled;
+            }
+        }
+
+        if (selected != null && selected.connection != null && this.settings.validateOnBorrow() && !this.isValid(selected)) {
+            this.discard(selected);
+            selected = null;
+        }
+
+        return selected;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            // a read-only call, failing on a closed connection
+            pooled.connection.getClientID();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void open(PooledConnection pooled) throws Exception {
+        try {
+            ConnectionAdapter connection = (ConnectionAdapter) (this.username != null ? this.factory.createConnection(this.username, this.password) : this.factory.createConnection());
+            connection.setExceptionListener(exception -> pooled.broken = true);
+            pooled.opened(connection);
+        } catch (Exception e) {
+            synchronized (this) {
+                pooled.broken = true;
+                this.connections.remove(pooled);
+            }
+            pooled.failed(e);
+            throw e;
+        }
+    }
+
+    static SessionAdapter createSession(ConnectionAdapter connection, int sessionMode) throws Exception {
+        if (sessionMode == SessionAdapter.SESSION_TRANSACTED) {
+            return (SessionAdapter) connection.createSession(true, SessionAdapter.SESSION_TRANSACTED);
+        }
+        return (SessionAdapter) connection.createSession(false, sessionMode);
+    }
+
+    private void release(PooledConnection pooled, SessionAdapter session, int sessionMode, boolean reusable) {
+        try {
+            synchronized (this) {
+                pooled.leased--;
+                pooled.lastUsed = System.nanoTime();
+
+                if (reusable && !pooled.broken && this.connections.contains(pooled)) {
+                    pooled.idleSessions(sessionMode).addFirst(session);
+                    session = null;
+                } else if (pooled.broken && pooled.leased == 0) {
+                    this.discard(pooled);
+                }
+                this.evict(pooled.lastUsed);
+            }
+
+            if (session != null) {
+                closeQuietly(session);
+            }
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    private void evict(long now) {
+        long idleNanos = this.settings.idleTimeout().toNanos();
+        Iterator<PooledConnection> iterator = this.connections.iterator();
+        while (iterator.hasNext()) {
+            PooledConnection pooled = iterator.next();
+            if (pooled.leased == 0 && (pooled.broken || now - pooled.lastUsed > idleNanos)) {
+                iterator.remove();
+                pooled.close();
+            }
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        this.connections.remove(pooled);
+        if (pooled.leased == 0) {
+            pooled.close();
+        } else {
+            // sessions still leased will be closed on release, the connection follows with the last one
+            pooled.broken = true;
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // Ignore exceptions on close
+        }
+    }
+
+    /**
+     * Only a hash of the password is kept, so that the key never prints it.
+     */
+    record Key(ConnectionFactoryCache.Key factory, String username, String passwordHash) {
+        static Key of(ConnectionFactoryCache.Key factory, String username, String password) {
+            if (password == null) {
+                return new Key(factory, username, null);
+            }
+
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+                return new Key(factory, username, HexFormat.of().formatHex(hash));
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform supports SHA-256
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    record Settings(int maxConnections, int maxSessionsPerConnection, Duration idleTimeout, Duration borrowTimeout, boolean validateOnBorrow) {
+    }
+
+    private static final class PooledConnection {
+        private final CompletableFuture<ConnectionAdapter> opening = new CompletableFuture<>();
+        private final Map<Integer, Deque<SessionAdapter>> idleSessions = new HashMap<>();
+        // null until opened by the borrower that reserved it
+        private volatile ConnectionAdapter connection;
+        private volatile boolean broken;
+        private int leased;
+        private long lastUsed = System.nanoTime();
+
+        private void opened(ConnectionAdapter connection) {
+            this.connection = connection;
+            this.opening.complete(connection);
+        }
+
+        private void failed(Exception e) {
+            this.opening.completeExceptionally(e);
+        }
+
+        private ConnectionAdapter await(Duration timeout) throws Exception {
+            try {
+                return this.opening.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+
+        private Deque<SessionAdapter> idleSessions(int sessionMode) {
+            return this.idleSessions.computeIfAbsent(sessionMode, mode -> new ArrayDeque<>());
+        }
+
+        private void close() {
+            this.idleSessions.values().forEach(sessions -> sessions.forEach(JMSConnectionPool::closeQuietly));
+            this.idleSessions.clear();
+            if (this.connection != null) {
+                closeQuietly(this.connection);
+            }
+        }
+    }
+
+    /**
+     * A session borrowed from the pool, or a dedicated connection and session when pooling is disabled.
+     * Closing the lease returns the session to its pool, or closes both resources for a dedicated one.
+     */
+    static final class Lease implements AutoCloseable {
+        private final JMSConnectionPool pool;
+        private final PooledConnection pooled;
+        private final ConnectionAdapter connection;
+        private final SessionAdapter session;
+        private final int sessionMode;
+        private boolean reusable = true;
+        private boolean closed;
+
+        private Lease(JMSConnectionPool pool, PooledConnection pooled, ConnectionAdapter connection, SessionAdapter session, int sessionMode) {
+            this.pool = pool;
+            this.pooled = pooled;
+            this.connection = connection;
+            this.session = session;
+            this.sessionMode = sessionMode;
+        }
+
+        static Lease dedicated(ConnectionAdapter connection, SessionAdapter session, int sessionMode) {
+            return new Lease(null, null, connection, session, sessionMode);
+        }
+
+        ConnectionAdapter connection() {
+            return this.connection;
+        }
+
+        SessionAdapter session() {
+            return this.session;
+        }
+
+        /**
+         * Marks the session as unusable, so it is closed instead of being returned to the pool.
+         */
+        void invalidate() {
+            this.reusable = false;
+        }
+
+        @Override
+        public void close() {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+
+            if (this.pool == null) {
+                closeQuietly(this.session);
+                closeQuietly(this.connection);
+                return;
+            }
+
+            this.pool.release(this.pooled, this.session, this.sessionMode, this.reusable);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.kestra.plugin.jms;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.runners.RunContext;
+
+import at.conapi.oss.jms.adapter.AbstractMessage;
+
+/**
+ * Accumulates the consumption metrics of a task run or trigger from any number of threads, and reports them
+ * as Kestra metrics on each flush. Values are reset on flush, so each report covers the time since the previous one.
+ * Flushes are serialized, so the run context never receives metrics from two threads at the same time.
+ * <p>
+ * The end-to-end latency, from the JMSTimestamp set by the producer to the receipt, is reported as a histogram:
+ * one {@code latency} counter per bucket, tagged with the bucket upper bound, and the maximum as a timer.
+ */
+final class JMSConsumerMetrics {
+    private static final long[] LATENCY_BOUNDS_MILLIS = {10, 100, 1_000, 10_000, 60_000};
+    private static final String[] LATENCY_BUCKETS = {"10ms", "100ms", "1s", "10s", "1m", "inf"};
+
+    private final String outputStage;
+    private final LongAdder received = new LongAdder();
+    private final LongAdder acknowledgements = new LongAdder();
+    private final LongAdder receiveNanos = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final LongAdder outputNanos = new LongAdder();
+    private final LongAdder acknowledgeNanos = new LongAdder();
+    private final LongAdder deduplicationLookups = new LongAdder();
+    private final LongAdder deduplicationHits = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder reconnectNanos = new LongAdder();
+    private final LongAdder[] latencies = new LongAdder[LATENCY_BUCKETS.length];
+    private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param outputStage The name of the timer of the stage handing decoded messages over, e.g. {@code stage.write}.
+     */
+    JMSConsumerMetrics(String outputStage) {
+        this.outputStage = outputStage;
+        for (int i = 0; i < this.latencies.length; i++) {
+            this.latencies[i] = new LongAdder();
+        }
+    }
+
+    void received(AbstractMessage message) {
+        this.received.increment();
+
+        long timestamp;
+        try {
+            timestamp = message.getJMSTimestamp();
+        } catch (Exception e) {
+            return;
+        }
+        if (timestamp <= 0) {
+            // the producer disabled message timestamps
+            return;
+        }
+
+        // clocks of the producer and the worker may drift apart
+        long latency = Math.max(0, System.currentTimeMillis() - timestamp);
+        int bucket = 0;
+        while (bucket < LATENCY_BOUNDS_MILLIS.length && latency > LATENCY_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        this.latencies[bucket].increment();
+        this.maxLatency.accumulate(latency);
+    }
+
+    void addReceiveTime(long nanos) {
+        this.receiveNanos.add(nanos);
+    }
+
+    void addDecodeTime(long nanos) {
+        this.decodeNanos.add(nanos);
+    }
+
+    void addOutputTime(long nanos) {
+        this.outputNanos.add(nanos);
+    }
+
+    /**
+     * Records an acknowledgement round-trip, covering every message acknowledged with it.
+     */
+    void acknowledged(long nanos) {
+        this.acknowledgements.increment();
+        this.acknowledgeNanos.add(nanos);
+    }
+
+    /**
+     * Records the lookup of a redelivered message in the deduplicator, and whether it was already processed.
+     */
+    void deduplicationLookup(boolean hit) {
+        this.deduplicationLookups.increment();
+        if (hit) {
+            this.deduplicationHits.increment();
+        }
+    }
+
+    /**
+     * Records a connection restored after being lost, with the time it was down.
+     */
+    void reconnected(long downtimeNanos) {
+        this.reconnects.increment();
+        this.reconnectNanos.add(downtimeNanos);
+    }
+
+    /**
+     * Reports the metrics accumulated since the previous flush, skipping the ones without any value.
+     */
+    synchronized void flush(RunContext runContext, String rDestName) {
+        counter(runContext, "messages.received", this.received.sumThenReset(), rDestName);
+        counter(runContext, "acknowledgements", this.acknowledgements.sumThenReset(), rDestName);
+        counter(runContext, "deduplication.lookups", this.deduplicationLookups.sumThenReset(), rDestName);
+        counter(runContext, "deduplication.hits", this.deduplicationHits.sumThenReset(), rDestName);
+        counter(runContext, "reconnects", this.reconnects.sumThenReset(), rDestName);
+        timer(runContext, "reconnect.downtime", this.reconnectNanos.sumThenReset(), rDestName);
+        timer(runContext, "stage.receive", this.receiveNanos.sumThenReset(), rDestName);
+        timer(runContext, "stage.decode", this.decodeNanos.sumThenReset(), rDestName);
+        timer(runContext, this.outputStage, this.outputNanos.sumThenReset(), rDestName);
+        timer(runContext, "stage.acknowledge", this.acknowledgeNanos.sumThenReset(), rDestName);
+
+        for (int i = 0; i < this.latencies.length; i++) {
+            long count = this.latencies[i].sumThenReset();
+            if (count > 0) {
+                runContext.metric(Counter.of("latency", count, "destination", rDestName, "bucket", LATENCY_BUCKETS[i]));
+            }
+        }
+        long rMaxLatency = this.maxLatency.getThenReset();
+        if (rMaxLatency > 0) {
+            runContext.metric(Timer.of("latency.max", Duration.ofMillis(rMaxLatency), "destination", rDestName));
+        }
+    }
+
+    private static void counter(RunContext runContext, String name, long value, String rDestName) {
+        if (value > 0) {
+            runContext.metric(Counter.of(name, value, "destination", rDestName));
+        }
+    }
+
+    private static void timer(RunContext runContext, String name, long nanos, String rDestName) {
+        if (nanos > 0) {
+            runContext.metric(Timer.of(name, Duration.ofNanos(nanos), "destination", rDestName));
+        }
+    }
+}
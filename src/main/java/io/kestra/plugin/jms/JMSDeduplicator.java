@@ -0,0 +1,223 @@
+package io.kestra.plugin.jms;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.jms.configuration.DeduplicationConfig;
+
+import at.conapi.oss.jms.adapter.AbstractMessage;
+
+/**
+ * Remembers the keys of the messages already processed by a task or trigger, so that their redeliveries can be dropped.
+ * <p>
+ * Keys are 64-bit hashes of the message ID, or of a configured property, stored in two generations of open-addressing
+ * {@code long} tables: no object is allocated per key. A generation is retired once it holds half of {@code maxSize}
+ * keys or is older than the time to live, so each key is remembered for at least that long unless pushed out by newer ones.
+ * <p>
+ * Deduplicators live on the worker for as long as they are used, shared by the runs of the same flow, task or trigger
+ * and destination, so that redeliveries are also caught after a restart of the task or trigger.
+ */
+final class JMSDeduplicator {
+    private static final Map<Scope, JMSDeduplicator> DEDUPLICATORS = new ConcurrentHashMap<>();
+
+    private final String rKey;
+    private final int generationSize;
+    private final long generationNanos;
+    private volatile long lastUsed = System.nanoTime();
+
+    // guarded by this
+    private LongSet current;
+    private LongSet previous;
+    private long currentSince = System.nanoTime();
+
+    private JMSDeduplicator(String rKey, int generationSize, long generationNanos) {
+        this.rKey = rKey;
+        this.generationSize = generationSize;
+        this.generationNanos = generationNanos;
+        this.current = new LongSet(generationSize);
+        this.previous = new LongSet(generationSize);
+    }
+
+    /**
+     * Returns the deduplicator of the rendered configuration for the current flow and the given task or trigger,
+     * or null when deduplication is not configured.
+     */
+    static JMSDeduplicator of(RunContext runContext, DeduplicationConfig config, String ownerId, String rDestName) throws IllegalVariableEvaluationException {
+        if (config == null) {
+            return null;
+        }
+
+        String rKey = runContext.render(config.getKey()).as(String.class).orElse(null);
+        int rMaxSize = Math.max(2, runContext.render(config.getMaxSize()).as(Integer.class).orElse(100_000));
+        Duration rTtl = runContext.render(config.getTtl()).as(Duration.class).orElse(Duration.ofHours(1));
+
+        RunContext.FlowInfo flowInfo = runContext.flowInfo();
+        Scope scope = new Scope(flowInfo.tenantId(), flowInfo.namespace(), flowInfo.id(), ownerId, rDestName, rKey, rMaxSize, rTtl);
+
+        // a deduplicator unused for two generations only holds expired keys
+        long now = System.nanoTime();
+        DEDUPLICATORS.values().removeIf(deduplicator -> now - deduplicator.lastUsed > 2 * deduplicator.generationNanos);
+
+        JMSDeduplicator deduplicator = DEDUPLICATORS.computeIfAbsent(scope, s -> new JMSDeduplicator(rKey, rMaxSize / 2, Math.max(1, rTtl.toNanos())));
+        deduplicator.lastUsed = now;
+        return deduplicator;
+    }
+
+    /**
+     * @return the key of the message, or 0 when it has no ID or no value for the configured property.
+     */
+    long key(AbstractMessage message) throws Exception {
+        String id = this.rKey != null ? message.getStringProperty(this.rKey) : message.getJMSMessageID();
+        return id != null ? hash(id) : 0;
+    }
+
+    /**
+     * Only a redelivered message can have been processed already, so fresh messages skip the lookup.
+     */
+    Lookup lookup(AbstractMessage message, long key) throws Exception {
+        if (key == 0 || !message.getJMSRedelivered()) {
+            return Lookup.SKIPPED;
+        }
+        return this.contains(key) ? Lookup.HIT : Lookup.MISSED;
+    }
+
+    /**
+     * Remembers the key of a message once it is processed, before it is acknowledged.
+     */
+    synchronized void record(long key) {
+        long now = System.nanoTime();
+        this.lastUsed = now;
+        this.expire(now);
+        this.add(key, now);
+    }
+
+    /**
+     * Remembers the keys of processed messages in a single critical section.
+     */
+    synchronized void record(long[] keys, int count) {
+        long now = System.nanoTime();
+        this.lastUsed = now;
+        this.expire(now);
+        for (int i = 0; i < count; i++) {
+            this.add(keys[i], now);
+        }
+    }
+
+    private void add(long key, long now) {
+        if (key == 0 || this.current.contains(key)) {
+            return;
+        }
+        if (this.current.size >= this.generationSize) {
+            this.rotate(now);
+        }
+        this.current.add(key);
+    }
+
+    private synchronized boolean contains(long key) {
+        long now = System.nanoTime();
+        this.lastUsed = now;
+        this.expire(now);
+        return this.current.contains(key) || this.previous.contains(key);
+    }
+
+    private void expire(long now) {
+        long age = now - this.currentSince;
+        if (age < this.generationNanos) {
+            return;
+        }
+        if (age >= 2 * this.generationNanos) {
+            // both generations expired
+            this.current.clear();
+        }
+        this.rotate(now);
+    }
+
+    private void rotate(long now) {
+        LongSet recycled = this.previous;
+        recycled.clear();
+        this.previous = this.current;
+        this.current = recycled;
+        this.currentSince = now;
+    }
+
+    /**
+     * FNV-1a followed by the MurmurHash3 finalizer, so that close IDs spread over the table.
+     */
+    static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        // 0 marks an empty slot
+        return hash == 0 ? 1 : hash;
+    }
+
+    enum Lookup {
+        /** The message is not redelivered, or has no key. */
+        SKIPPED,
+        /** The redelivered message was not processed before. */
+        MISSED,
+        /** The redelivered message was already processed, it should be dropped. */
+        HIT
+    }
+
+    private record Scope(String tenantId, String namespace, String flowId, String ownerId, String rDestName, String rKey, int maxSize, Duration ttl) {
+    }
+
+    /**
+     * An open-addressing set of non-zero longs with linear probing, kept at most half full.
+     */
+    private static final class LongSet {
+        private final long[] slots;
+        private final int mask;
+        private int size;
+
+        private LongSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(1, 2 * expected - 1)) << 1;
+            this.slots = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private boolean contains(long key) {
+            int index = (int) key & this.mask;
+            while (this.slots[index] != 0) {
+                if (this.slots[index] == key) {
+                    return true;
+                }
+                index = (index + 1) & this.mask;
+            }
+            return false;
+        }
+
+        private void add(long key) {
+            int index = (int) key & this.mask;
+            while (this.slots[index] != 0) {
+                if (this.slots[index] == key) {
+                    return;
+                }
+                index = (index + 1) & this.mask;
+            }
+            this.slots[index] = key;
+            this.size++;
+        }
+
+        private void clear() {
+            if (this.size > 0) {
+                Arrays.fill(this.slots, 0L);
+                this.size = 0;
+            }
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package io.kestra.plugin.jms;
 
 import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.runners.RunContext;
 
 import at.conapi.oss.jms.adapter.AbstractDestination;
+import at.conapi.oss.jms.adapter.impl.ConnectionAdapter;
+import at.conapi.oss.jms.adapter.impl.ConsumerAdapter;
+import at.conapi.oss.jms.adapter.impl.SessionAdapter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
@@ -20,4 +24,87 @@ public class JMSDestination {
     @PluginProperty
     @Builder.Default
     private AbstractDestination.DestinationType destinationType = AbstractDestination.DestinationType.QUEUE;
+
+    @Schema(
+        title = "Subscription name",
+        description = "Rendered name of the topic subscription, required when `durable` or `shared` is set. Ignored for queues."
+    )
+    @PluginProperty(dynamic = true, group = "advanced")
+    private String subscriptionName;
+
+    @Schema(
+        title = "Durable subscription",
+        description = "Consume a topic through a durable subscription, so messages published while no consumer is connected are kept by the broker and delivered on restart; default false. An unshared durable subscription is identified by `subscriptionName` and the client ID of the connection, so it requires `clientId` unless the connection factory sets one."
+    )
+    @PluginProperty(group = "advanced")
+    @Builder.Default
+    private Boolean durable = false;
+
+    @Schema(
+        title = "Shared subscription",
+        description = "Consume a topic through a JMS 2.0 shared subscription: every consumer with the same `subscriptionName`, on any worker, receives a share of its messages instead of all of them; default false."
+    )
+    @PluginProperty(group = "advanced")
+    @Builder.Default
+    private Boolean shared = false;
+
+    @Schema(
+        title = "Client ID",
+        description = "Rendered client ID set on the connection of the consumer, required by an unshared durable subscription unless the connection factory already sets one. The broker accepts a single connection per client ID, so it can't be used with a connection pool or a shared connection."
+    )
+    @PluginProperty(dynamic = true, group = "advanced")
+    private String clientId;
+
+    /**
+     * Whether the consumers of this destination share its messages, rather than each receiving all of them.
+     */
+    boolean sharesMessages() {
+        return this.destinationType == AbstractDestination.DestinationType.QUEUE || Boolean.TRUE.equals(this.shared);
+    }
+
+    /**
+     * Sets the client ID on a connection created for this consumer, before any other use of it, and checks that an
+     * unshared durable subscription gets one.
+     *
+     * @param dedicated Whether the connection is only used by this consumer, rather than pooled or shared.
+     */
+    void applyClientId(RunContext runContext, ConnectionAdapter connection, boolean dedicated) throws Exception {
+        String rClientId = runContext.render(this.clientId);
+        if (rClientId != null && !rClientId.isBlank()) {
+            if (!dedicated) {
+                throw new IllegalArgumentException("`clientId` can't be set on a pooled or shared connection, the broker accepts a single connection per client ID.");
+            }
+            connection.setClientID(rClientId);
+            return;
+        }
+
+        boolean unsharedDurable = this.destinationType == AbstractDestination.DestinationType.TOPIC && Boolean.TRUE.equals(this.durable) && !Boolean.TRUE.equals(this.shared);
+        if (unsharedDurable && connection.getClientID() == null) {
+            throw new IllegalArgumentException("`clientId` is required for an unshared durable topic subscription, unless the connection factory sets one.");
+        }
+    }
+
+    /**
+     * Creates a consumer of this destination on the session, through a durable or shared subscription for a topic if configured.
+     */
+    ConsumerAdapter createConsumer(RunContext runContext, SessionAdapter session, AbstractDestination jmsDestination, String messageSelector) throws Exception {
+        boolean rDurable = Boolean.TRUE.equals(this.durable);
+        boolean rShared = Boolean.TRUE.equals(this.shared);
+        if (this.destinationType != AbstractDestination.DestinationType.TOPIC || (!rDurable && !rShared)) {
+            return (ConsumerAdapter) session.createConsumer(jmsDestination, messageSelector);
+        }
+
+        String rSubscriptionName = runContext.render(this.subscriptionName);
+        if (rSubscriptionName == null || rSubscriptionName.isBlank()) {
+            throw new IllegalArgumentException("`subscriptionName` is required for a durable or shared topic subscription.");
+        }
+
+        if (rDurable && rShared) {
+            return (ConsumerAdapter) session.createSharedDurableConsumer(jmsDestination, rSubscriptionName, messageSelector);
+        }
+        if (rShared) {
+            return (ConsumerAdapter) session.createSharedConsumer(jmsDestination, rSubscriptionName, messageSelector);
+        }
+        return (ConsumerAdapter) session.createDurableConsumer(jmsDestination, rSubscriptionName, messageSelector, false);
+    }
 }
@@ -0,0 +1,61 @@
+package io.kestra.plugin.jms;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+
+import io.kestra.core.runners.RunContext;
+
+import at.conapi.oss.jms.adapter.AbstractMessage;
+
+/**
+ * Streams the bodies of BytesMessages larger than a threshold into their own internal storage file,
+ * chunk by chunk, so that the heap used by a message is bounded whatever the size of its body.
+ * The message data is then the URI of the file, which holds the body as received: neither
+ * decompressed nor deserialized.
+ */
+final class JMSLargeBodies {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final RunContext runContext;
+    private final long threshold;
+
+    private JMSLargeBodies(RunContext runContext, long threshold) {
+        this.runContext = runContext;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @param rThreshold The body size in bytes above which bodies are stored, null or not positive to never store them.
+     * @return the large bodies of the run, or null when they are kept in memory.
+     */
+    static JMSLargeBodies of(RunContext runContext, Long rThreshold) {
+        return rThreshold != null && rThreshold > 0 ? new JMSLargeBodies(runContext, rThreshold) : null;
+    }
+
+    /**
+     * Only reads the body length, the body itself is left unread.
+     */
+    boolean isLarge(AbstractMessage message) throws Exception {
+        return message.isBytesMessageInstance() && message.getBodyLength() > this.threshold;
+    }
+
+    URI store(AbstractMessage message) throws Exception {
+        File tempFile = this.runContext.workingDir().createTempFile(".bin").toFile();
+        try {
+            byte[] chunk = new byte[CHUNK_SIZE];
+            try (OutputStream outputStream = new FileOutputStream(tempFile)) {
+                int read;
+                while ((read = message.readBytes(chunk)) > 0) {
+                    outputStream.write(chunk, 0, read);
+                }
+            }
+
+            return this.runContext.storage().putFile(tempFile);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+}
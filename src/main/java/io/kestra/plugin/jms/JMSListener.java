@@ -0,0 +1,638 @@
+package io.kestra.plugin.jms;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.reactivestreams.Subscription;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.utils.Rethrow;
+import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+import io.kestra.plugin.jms.configuration.ReconnectConfig;
+
+import at.conapi.oss.jms.adapter.AbstractDestination;
+import at.conapi.oss.jms.adapter.AbstractMessage;
+import at.conapi.oss.jms.adapter.impl.ConnectionAdapter;
+import at.conapi.oss.jms.adapter.impl.ConnectionFactoryAdapter;
+import at.conapi.oss.jms.adapter.impl.ConsumerAdapter;
+import at.conapi.oss.jms.adapter.impl.SessionAdapter;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+/**
+ * Manages the lifecycle of the JMS resources of a realtime trigger, turning every received message into an item
+ * that is acknowledged once reported as emitted.
+ * <p>
+ * With CLIENT_ACKNOWLEDGE, acknowledging a message acknowledges every message consumed so far on the session,
+ * including the ones still buffered. Acknowledgements are therefore done at checkpoints, once every message delivered
+ * on the session is emitted. A checkpoint is taken whenever a session is drained, acknowledging it under its channel
+ * lock, which the message listener holds while dispatching. Once {@code bufferSize} messages are pending, delivery is
+ * paused by {@code connection.stop()} until enough of them are acknowledged. Stopping and starting the connection is
+ * not allowed from a message listener, so checkpoints run on their own thread.
+ * <p>
+ * When the connection is lost, a new one is opened from the cached factory on the same thread, with a jittered
+ * exponential backoff. Messages that were not acknowledged are redelivered by the broker on the new sessions.
+ * <p>
+ * A {@link JMSSharedConnection shared connection} can't be stopped without pausing every trigger using it. Delivery
+ * is then bounded by holding the session's own delivery thread while {@code bufferSize} messages are pending, and
+ * checkpoints acknowledge a drained session under its channel lock. The listener dispatches its message before being
+ * held, so every message consumed on the session is counted as delivered, and an acknowledgement, which covers all
+ * of them, is only made once they are all emitted.
+ * <p>
+ * Throughput, stage timings, end-to-end latency, deduplication lookups and reconnections are reported as metrics
+ * every {@code metricsInterval}, at least {@link #MIN_METRICS_INTERVAL} apart, and once more on close. Metrics are
+ * only reported by these flushes, as the run context of a trigger keeps every metric for as long as it runs.
+ *
+ * @param <T> The item emitted for each message.
+ */
+final class JMSListener<T> {
+    /**
+     * Bounds the number of metric entries a long-running trigger adds to its run context.
+     */
+    static final Duration MIN_METRICS_INTERVAL = Duration.ofSeconds(10);
+
+    private final RunContext runContext;
+    private final ConnectionFactoryConfig connectionFactoryConfig;
+    private final JMSDestination destination;
+    private final String messageSelector;
+    private final Rethrow.FunctionChecked<AbstractMessage, JMSMessage, Exception> decoder;
+    private final int bufferSize;
+    private final int concurrency;
+    private final String orderingKey;
+    private final Reconnect reconnect;
+    private final boolean shareConnection;
+    private final JMSDeduplicator deduplicator;
+    private final Duration metricsInterval;
+    private final Function<JMSMessage, T> toItem;
+    private final Consumer<Delivery<T>> messageConsumer;
+    private final Consumer<Throwable> errorConsumer;
+
+    private final ExecutorService flowControl = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("jms-trigger-flow-control").factory());
+    private final ScheduledExecutorService metricsReporter = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("jms-trigger-metrics").factory());
+    private final JMSConsumerMetrics metrics = new JMSConsumerMetrics("stage.emit");
+    private final AtomicBoolean checkpointScheduled = new AtomicBoolean();
+    private final List<ExecutorService> lanes = new ArrayList<>();
+    private volatile List<Channel> channels = List.of();
+    private volatile boolean closed;
+    private boolean paused;
+
+    private volatile ConnectionAdapter connection;
+    private volatile JMSSharedConnection.Handle sharedConnection;
+    private volatile List<SessionAdapter> sessions = List.of();
+    private String destinationUrl;
+    private String rDestName;
+
+    JMSListener(
+        RunContext runContext,
+        ConnectionFactoryConfig connectionFactoryConfig,
+        JMSDestination destination,
+        String messageSelector,
+        Rethrow.FunctionChecked<AbstractMessage, JMSMessage, Exception> decoder,
+        int bufferSize,
+        int concurrency,
+        String orderingKey,
+        Reconnect reconnect,
+        boolean shareConnection,
+        JMSDeduplicator deduplicator,
+        Duration metricsInterval,
+        Function<JMSMessage, T> toItem,
+        Consumer<Delivery<T>> messageConsumer,
+        Consumer<Throwable> errorConsumer) {
+        this.runContext = runContext;
+        this.connectionFactoryConfig = connectionFactoryConfig;
+        this.destination = destination;
+        this.messageSelector = messageSelector;
+        this.decoder = decoder;
+        this.bufferSize = bufferSize;
+        this.concurrency = concurrency;
+        this.orderingKey = orderingKey;
+        this.reconnect = reconnect;
+        this.shareConnection = shareConnection;
+        this.deduplicator = deduplicator;
+        this.metricsInterval = metricsInterval;
+        this.toItem = toItem;
+        this.messageConsumer = messageConsumer;
+        this.errorConsumer = errorConsumer;
+    }
+
+    /**
+     * Creates a Flux of deliveries, starting the listener built from the sink on subscription
+     * and closing it when the Flux is disposed.
+     */
+    static <T> Flux<Delivery<T>> flux(Rethrow.FunctionChecked<FluxSink<Delivery<T>>, JMSListener<T>, Exception> listenerFactory) {
+        return Flux.create(emitter ->
+        {
+            // We use a self-managed wrapper for JMS resources to ensure they are all closed correctly.
+            JMSListener<T> jmsListener = null;
+            try {
+                jmsListener = listenerFactory.apply(emitter);
+                jmsListener.start();
+
+                // onDispose is a crucial hook that Kestra calls when the trigger is disabled or the flow is deleted.
+                // It ensures we clean up the connection.
+                emitter.onDispose(jmsListener::close);
+            } catch (Exception e) {
+                // If setup fails, we emit the error and the Flux terminates.
+                emitter.error(e);
+                if (jmsListener != null) {
+                    jmsListener.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Maps each item to its execution and calls {@code onEmitted} only once the execution has been handed over
+     * downstream, so the messages behind it are not acknowledged before.
+     */
+    static <I> Flux<Execution> emitThenAcknowledge(Flux<I> items, Function<I, Execution> toExecution, Consumer<I> onEmitted) {
+        return items.transform(Operators.<I, Execution>lift((scannable, downstream) -> new AcknowledgingSubscriber<>(downstream, toExecution, onEmitted)));
+    }
+
+    void start() throws Exception {
+        this.rDestName = runContext.render(destination.getDestinationName());
+        String rDestType = destination.getDestinationType() == AbstractDestination.DestinationType.QUEUE ? SessionAdapter.QUEUE : SessionAdapter.TOPIC;
+        this.destinationUrl = String.format("%s://%s", rDestType, this.rDestName);
+
+        if (this.usesLanes()) {
+            for (int i = 0; i < this.concurrency; i++) {
+                this.lanes.add(Executors.newSingleThreadExecutor(Thread.ofVirtual().name("jms-trigger-lane-" + i).factory()));
+            }
+        }
+
+        this.connect();
+        if (this.metricsInterval.isPositive()) {
+            long period = Math.max(this.metricsInterval.toMillis(), MIN_METRICS_INTERVAL.toMillis());
+            this.metricsReporter.scheduleAtFixedRate(this::reportMetrics, period, period, TimeUnit.MILLISECONDS);
+        }
+        runContext.logger().info("JMS trigger listener started for destination '{}' with {} session(s) and {} lane(s)", this.rDestName, this.channels.size(), this.lanes.size());
+    }
+
+    /**
+     * Sessions of a queue or shared subscription share its messages, but every other subscriber of a topic receives
+     * all of them: keyed or topic consumption uses a single session, handing messages over to ordered lanes.
+     */
+    private boolean usesLanes() {
+        return this.concurrency > 1 && (this.orderingKey != null || !destination.sharesMessages());
+    }
+
+    private void connect() throws Exception {
+        JMSSharedConnection.Handle newSharedConnection = null;
+        ConnectionAdapter newConnection;
+        if (this.shareConnection) {
+            newSharedConnection = JMSSharedConnection.acquire(runContext, this.connectionFactoryConfig, this::connectionLost);
+            newConnection = newSharedConnection.connection();
+            try {
+                this.destination.applyClientId(runContext, newConnection, false);
+            } catch (Exception e) {
+                release(newConnection, newSharedConnection, List.of());
+                throw e;
+            }
+        } else {
+            // the factory, and its classloader or JNDI lookup, comes from the worker cache
+            JMSConnectionFactory factoryService = new JMSConnectionFactory();
+            ConnectionFactoryAdapter factory = factoryService.create(runContext, this.connectionFactoryConfig);
+
+            String rUsername = this.connectionFactoryConfig.getUsername() != null ? runContext.render(this.connectionFactoryConfig.getUsername()) : null;
+            String rPassword = this.connectionFactoryConfig.getPassword() != null ? runContext.render(this.connectionFactoryConfig.getPassword()) : null;
+
+            newConnection = (ConnectionAdapter) (rUsername != null ? factory.createConnection(rUsername, rPassword) : factory.createConnection());
+            try {
+                // before any other use of the connection
+                this.destination.applyClientId(runContext, newConnection, true);
+            } catch (Exception e) {
+                closeQuietly(newConnection);
+                throw e;
+            }
+            newConnection.setExceptionListener(exception -> this.connectionLost(newConnection, exception));
+        }
+
+        List<SessionAdapter> newSessions = new ArrayList<>();
+        try {
+            List<Channel> newChannels = new ArrayList<>();
+            int sessions = this.usesLanes() ? 1 : this.concurrency;
+            for (int i = 0; i < sessions; i++) {
+                // Use CLIENT_ACKNOWLEDGE for at-least-once delivery semantics
+                SessionAdapter session = (SessionAdapter) newConnection.createSession(false, SessionAdapter.CLIENT_ACKNOWLEDGE);
+                newSessions.add(session);
+                AbstractDestination jmsDestination = session.createDestination(this.destinationUrl);
+                ConsumerAdapter consumer = this.destination.createConsumer(runContext, session, jmsDestination, messageSelector);
+
+                Channel channel = new Channel(this::scheduleCheckpoint, this.deduplicator);
+                newChannels.add(channel);
+                consumer.setMessageListener(message -> this.onMessage(channel, message));
+            }
+
+            this.connection = newConnection;
+            this.sharedConnection = newSharedConnection;
+            this.sessions = List.copyOf(newSessions);
+            this.channels = List.copyOf(newChannels);
+            this.paused = false;
+            // a no-op when the shared connection is already started
+            newConnection.start();
+        } catch (Exception e) {
+            release(newConnection, newSharedConnection, newSessions);
+            throw e;
+        }
+    }
+
+    /**
+     * Closes a dedicated connection, or only the sessions of a shared one before releasing it.
+     */
+    private static void release(ConnectionAdapter connection, JMSSharedConnection.Handle sharedConnection, List<SessionAdapter> sessions) {
+        if (sharedConnection == null) {
+            closeQuietly(connection);
+            return;
+        }
+
+        sessions.forEach(JMSListener::closeQuietly);
+        sharedConnection.close();
+    }
+
+    private void connectionLost(ConnectionAdapter lost, Throwable exception) {
+        if (this.closed || lost != this.connection) {
+            return;
+        }
+
+        if (this.reconnect.maxAttempts() <= 0) {
+            errorConsumer.accept(exception);
+            return;
+        }
+
+        runContext.logger().warn("JMS connection to '{}' lost, reconnecting: {}", this.rDestName, exception.getMessage());
+        try {
+            this.flowControl.execute(() -> this.reconnect(lost));
+        } catch (RejectedExecutionException e) {
+            // the listener is closed
+        }
+    }
+
+    /**
+     * Replaces the lost connection, runs on the flow control thread so no checkpoint uses it in the meantime.
+     */
+    private void reconnect(ConnectionAdapter lost) {
+        if (this.closed || lost != this.connection) {
+            // already replaced after an earlier report
+            return;
+        }
+        release(lost, this.sharedConnection, this.sessions);
+
+        long start = System.nanoTime();
+        long delay = this.reconnect.initialDelay().toMillis();
+        for (int attempt = 1; !this.closed; attempt++) {
+            try {
+                this.connect();
+
+                Duration downtime = Duration.ofNanos(System.nanoTime() - start);
+                this.metrics.reconnected(downtime.toNanos());
+                runContext.logger().info("JMS connection to '{}' restored after {} attempt(s) in {}", this.rDestName, attempt, downtime);
+                return;
+            } catch (Exception e) {
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+                if (attempt >= this.reconnect.maxAttempts() || elapsed.compareTo(this.reconnect.maxDuration()) >= 0) {
+                    errorConsumer.accept(e);
+                    return;
+                }
+                runContext.logger().debug("JMS reconnection attempt {} to '{}' failed: {}", attempt, this.rDestName, e.getMessage());
+            }
+
+            try {
+                // full jitter, so triggers losing the same broker don't reconnect all at once
+                Thread.sleep(ThreadLocalRandom.current().nextLong(delay / 2, delay + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delay = Math.min(delay * 2, this.reconnect.maxDelay().toMillis());
+        }
+    }
+
+    private void onMessage(Channel channel, AbstractMessage message) {
+        channel.lock.lock();
+        try {
+            this.dispatch(channel, message);
+            if (this.shareConnection) {
+                // the provider doesn't deliver the next message of the session until the listener returns
+                this.awaitCapacity(channel);
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    /**
+     * Holds the delivery thread of the session while the buffer is full, releasing the channel lock for checkpoints.
+     * Called once the message of the listener is dispatched: a message held undispatched would be covered by the
+     * acknowledgement of the drained session before being emitted.
+     */
+    private void awaitCapacity(Channel channel) {
+        try {
+            while (this.pending() >= this.bufferSize && !this.closed) {
+                this.scheduleCheckpoint();
+                channel.acknowledgement.await(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch(Channel channel, AbstractMessage message) {
+        this.metrics.received(message);
+
+        long key = 0;
+        if (this.deduplicator != null) {
+            try {
+                key = this.deduplicator.key(message);
+                if (this.isDuplicate(message, key)) {
+                    // already emitted before its acknowledgement was lost, only acknowledged at the next checkpoint
+                    channel.lastDelivered = message;
+                    channel.delivered.incrementAndGet();
+                    channel.emitted(0);
+                    return;
+                }
+            } catch (Exception e) {
+                errorConsumer.accept(e);
+                return;
+            }
+        }
+
+        channel.lastDelivered = message;
+        long sequence = channel.delivered.incrementAndGet();
+
+        long messageKey = key;
+        if (this.lanes.isEmpty()) {
+            this.emit(channel, message, messageKey);
+        } else {
+            try {
+                String orderingValue = this.orderingKey != null ? message.getStringProperty(this.orderingKey) : null;
+                int lane = orderingValue != null ? Math.floorMod(orderingValue.hashCode(), this.lanes.size()) : (int) (sequence % this.lanes.size());
+                this.lanes.get(lane).execute(() -> this.emit(channel, message, messageKey));
+            } catch (RejectedExecutionException e) {
+                // the listener is closed, the message will be redelivered
+            } catch (Exception e) {
+                errorConsumer.accept(e);
+            }
+        }
+
+        // Acknowledged once its item is emitted
+        if (this.pending() >= this.bufferSize) {
+            this.scheduleCheckpoint();
+        }
+    }
+
+    private boolean isDuplicate(AbstractMessage message, long key) throws Exception {
+        JMSDeduplicator.Lookup lookup = this.deduplicator.lookup(message, key);
+        if (lookup == JMSDeduplicator.Lookup.SKIPPED) {
+            return false;
+        }
+
+        // accumulated and reported every metricsInterval, like the other metrics of the listener
+        boolean hit = lookup == JMSDeduplicator.Lookup.HIT;
+        this.metrics.deduplicationLookup(hit);
+        return hit;
+    }
+
+    private void emit(Channel channel, AbstractMessage message, long key) {
+        try {
+            long start = System.nanoTime();
+            JMSMessage kestraMessage = this.decoder.apply(message);
+            long decoded = System.nanoTime();
+            this.metrics.addDecodeTime(decoded - start);
+
+            messageConsumer.accept(new Delivery<>(this.toItem.apply(kestraMessage), channel, key));
+            this.metrics.addOutputTime(System.nanoTime() - decoded);
+        } catch (Exception e) {
+            // Don't acknowledge - message will be redelivered
+            errorConsumer.accept(e);
+            runContext.logger().warn("Failed to process JMS message, will be redelivered", e);
+        }
+    }
+
+    private long pending() {
+        long pending = 0;
+        for (Channel channel : this.channels) {
+            pending += channel.delivered.get() - channel.acknowledged;
+        }
+        return pending;
+    }
+
+    private void scheduleCheckpoint() {
+        if (this.checkpointScheduled.compareAndSet(false, true)) {
+            try {
+                this.flowControl.execute(this::checkpoint);
+            } catch (RejectedExecutionException e) {
+                // the listener is closed
+            }
+        }
+    }
+
+    private void checkpoint() {
+        this.checkpointScheduled.set(false);
+        try {
+            if (this.shareConnection || (!this.paused && this.pending() < this.bufferSize)) {
+                // below the buffer limit, or when other triggers use the connection, delivery isn't paused: the
+                // channel lock keeps a message from being dispatched while its session is acknowledged
+                for (Channel channel : this.channels) {
+                    channel.lock.lock();
+                    try {
+                        this.acknowledgeIfDrained(channel);
+                        channel.acknowledgement.signalAll();
+                    } finally {
+                        channel.lock.unlock();
+                    }
+                }
+                return;
+            }
+
+            if (!this.paused) {
+                // waits for the message listeners in progress, no message is delivered until restarted
+                this.connection.stop();
+                this.paused = true;
+            }
+
+            for (Channel channel : this.channels) {
+                this.acknowledgeIfDrained(channel);
+            }
+
+            // otherwise stay paused, draining a session schedules the next checkpoint
+            if (this.pending() < this.bufferSize) {
+                this.connection.start();
+                this.paused = false;
+            }
+        } catch (Exception e) {
+            // most likely a lost connection, handled like the ones reported to the ExceptionListener
+            this.connectionLost(this.connection, e);
+        }
+    }
+
+    private void acknowledgeIfDrained(Channel channel) throws Exception {
+        long rDelivered = channel.delivered.get();
+        if (channel.emitted.get() == rDelivered && rDelivered > channel.acknowledged) {
+            long start = System.nanoTime();
+            channel.lastDelivered.acknowledge();
+            this.metrics.acknowledged(System.nanoTime() - start);
+            channel.acknowledged = rDelivered;
+        }
+    }
+
+    private void reportMetrics() {
+        try {
+            this.metrics.flush(runContext, this.rDestName);
+            // a sampled depth, not a count that could be summed across reports
+            runContext.logger().debug("{} JMS message(s) pending acknowledgement on '{}'", this.pending(), this.rDestName);
+        } catch (Exception e) {
+            // a failed report must not cancel the next ones
+            runContext.logger().debug("Unable to report JMS trigger metrics: {}", e.getMessage());
+        }
+    }
+
+    void close() {
+        this.closed = true;
+        this.flowControl.shutdownNow();
+        this.lanes.forEach(ExecutorService::shutdownNow);
+        this.metricsReporter.shutdownNow();
+        if (this.rDestName != null) {
+            this.reportMetrics();
+        }
+        if (this.sharedConnection != null) {
+            // the other triggers keep the connection, the last one closes it
+            release(this.connection, this.sharedConnection, this.sessions);
+        } else if (this.connection != null) {
+            try {
+                this.connection.close();
+            } catch (Exception e) {
+                runContext.logger().warn("Error closing JMS connection on trigger shutdown.", e);
+            }
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // Ignore exceptions on close
+        }
+    }
+
+    /**
+     * The rendered reconnection settings.
+     */
+    record Reconnect(int maxAttempts, Duration maxDuration, Duration initialDelay, Duration maxDelay) {
+        static Reconnect render(RunContext runContext, ReconnectConfig config) throws IllegalVariableEvaluationException {
+            if (config == null) {
+                return new Reconnect(0, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+            }
+
+            Duration rInitialDelay = runContext.render(config.getInitialDelay()).as(Duration.class).orElse(Duration.ofMillis(500));
+            return new Reconnect(
+                runContext.render(config.getMaxAttempts()).as(Integer.class).orElse(10),
+                runContext.render(config.getMaxDuration()).as(Duration.class).orElse(Duration.ofMinutes(5)),
+                rInitialDelay.isPositive() ? rInitialDelay : Duration.ofMillis(1),
+                runContext.render(config.getMaxDelay()).as(Duration.class).orElse(Duration.ofSeconds(30))
+            );
+        }
+    }
+
+    /**
+     * The item of a received message, with the channel it was received on and its deduplication key.
+     */
+    record Delivery<T>(T item, Channel channel, long key) {
+        /**
+         * Reports the message as emitted, it is acknowledged at the next checkpoint.
+         */
+        void emitted() {
+            this.channel.emitted(this.key);
+        }
+    }
+
+    /**
+     * The delivery and acknowledgement state of a session. Messages of a session are emitted in any order
+     * when processed by several lanes, so emissions are counted rather than tracked by position.
+     */
+    static final class Channel {
+        private final Runnable onDrained;
+        private final JMSDeduplicator deduplicator;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition acknowledgement = this.lock.newCondition();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong emitted = new AtomicLong();
+        private volatile long acknowledged;
+        private volatile AbstractMessage lastDelivered;
+
+        private Channel(Runnable onDrained, JMSDeduplicator deduplicator) {
+            this.onDrained = onDrained;
+            this.deduplicator = deduplicator;
+        }
+
+        /**
+         * Reports a message of this session as emitted, remembering its key before it is acknowledged.
+         */
+        private void emitted(long key) {
+            if (this.deduplicator != null) {
+                this.deduplicator.record(key);
+            }
+            if (this.emitted.incrementAndGet() == this.delivered.get()) {
+                this.onDrained.run();
+            }
+        }
+    }
+
+    /**
+     * Emits the execution of each item, then reports the item as emitted so it can be acknowledged.
+     */
+    private static final class AcknowledgingSubscriber<I> implements CoreSubscriber<I> {
+        private final CoreSubscriber<? super Execution> downstream;
+        private final Function<I, Execution> toExecution;
+        private final Consumer<I> onEmitted;
+
+        private AcknowledgingSubscriber(CoreSubscriber<? super Execution> downstream, Function<I, Execution> toExecution, Consumer<I> onEmitted) {
+            this.downstream = downstream;
+            this.toExecution = toExecution;
+            this.onEmitted = onEmitted;
+        }
+
+        @Override
+        public Context currentContext() {
+            return this.downstream.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.downstream.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(I item) {
+            this.downstream.onNext(this.toExecution.apply(item));
+            this.onEmitted.accept(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.downstream.onComplete();
+        }
+    }
+}
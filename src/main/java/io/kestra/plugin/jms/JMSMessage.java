@@ -1,13 +1,23 @@
 package io.kestra.plugin.jms;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.Output;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.jms.serde.Compression;
+import io.kestra.plugin.jms.serde.CompressionType;
+import io.kestra.plugin.jms.serde.JsonPayload;
+import io.kestra.plugin.jms.serde.Serde;
 import io.kestra.plugin.jms.serde.SerdeType;
 
 import at.conapi.oss.jms.adapter.AbstractDestination;
@@ -25,6 +35,11 @@ import io.kestra.core.models.annotations.PluginProperty;
 @Getter
 @Builder
 public final class JMSMessage implements Output {
+    /**
+     * The JMS property carrying the codec of a compressed body, set by the producer.
+     */
+    static final String CONTENT_ENCODING_PROPERTY = "contentEncoding";
+
     @Schema(title = "The message's content type")
     @PluginProperty(group = "advanced")
     private final String contentType;
@@ -60,6 +75,10 @@ public final class JMSMessage implements Output {
     @Schema(title = "The type of the replyTo destination (QUEUE or TOPIC)")
     private final AbstractDestination.DestinationType replyToType;
 
+    @Schema(title = "The message time to live in milliseconds, only used when producing")
+    @PluginProperty(group = "advanced")
+    private final Long timeToLive;
+
     @Schema(title = "The duration until the message expires")
     @PluginProperty(group = "advanced")
     private final Duration expiration;
@@ -85,25 +104,68 @@ public final class JMSMessage implements Output {
      * @throws Exception if an error occurs during message processing.
      */
     public static JMSMessage of(AbstractMessage msg, SerdeType serdeType) throws Exception {
-        byte[] body = getBodyAsBytes(msg);
-        Object data = serdeType.deserialize(body);
-        AbstractDestination replyToDestination = msg.getJMSReplyTo();
+        return of(msg, Serde.of(serdeType), false, Projection.ALL, Compression.DEFAULT_MAX_DECOMPRESSED_SIZE);
+    }
+
+    /**
+     * Creates a JMSMessage from the AbstractMessage
+     *
+     * @param msg The source JMS message (AbstractMessage)
+     * @param serde The serialization/deserialization format for the message body, with its schema compiled for the run.
+     * @param streamJson Keep JSON bodies as a {@link JsonPayload}, transcoded when the message is serialized,
+     *                   for callers that only write the message to a file and never read its data.
+     * @param projection The headers and optional fields to extract, the others are never read from the message.
+     * @param maxDecompressedSize The size in bytes a compressed body may decompress to.
+     * @return A new AbstractMessage instance.
+     * @throws Exception if an error occurs during message processing.
+     */
+    static JMSMessage of(AbstractMessage msg, Serde serde, boolean streamJson, Projection projection, int maxDecompressedSize) throws Exception {
+        return of(msg, serde, streamJson, projection, null, maxDecompressedSize);
+    }
+
+    /**
+     * Creates a JMSMessage from the AbstractMessage
+     *
+     * @param msg The source JMS message (AbstractMessage)
+     * @param serde The serialization/deserialization format for the message body, with its schema compiled for the run.
+     * @param streamJson Keep JSON bodies as a {@link JsonPayload}, transcoded when the message is serialized,
+     *                   for callers that only write the message to a file and never read its data.
+     * @param projection The headers and optional fields to extract, the others are never read from the message.
+     * @param largeBodies Where bodies above the large message threshold are streamed to, their URI becoming the data; null to keep every body in memory.
+     * @param maxDecompressedSize The size in bytes a compressed body may decompress to.
+     * @return A new AbstractMessage instance.
+     * @throws Exception if an error occurs during message processing.
+     */
+    static JMSMessage of(AbstractMessage msg, Serde serde, boolean streamJson, Projection projection, JMSLargeBodies largeBodies, int maxDecompressedSize) throws Exception {
+        // the encoding is a transport detail needed to decode the body, it is read whatever the projection
+        String contentEncoding = msg.isBytesMessageInstance() ? msg.getStringProperty(CONTENT_ENCODING_PROPERTY) : null;
+        Object data = largeBodies != null && largeBodies.isLarge(msg) ? largeBodies.store(msg) : deserializeBody(msg, serde, streamJson, contentEncoding, maxDecompressedSize);
 
-        return JMSMessage.builder()
+        JMSMessageBuilder builder = JMSMessage.builder()
             .data(data)
             .contentType(msg.getJMSType())
-            .headers(extractProperties(msg))
+            .headers(extractProperties(msg, projection))
             .deliveryMode(msg.getJMSDeliveryMode())
             .priority(msg.getJMSPriority())
             .messageId(msg.getJMSMessageID())
             .correlationId(msg.getJMSCorrelationID())
-            .replyTo(getDestinationName(replyToDestination))
-            .replyToType(getDestinationType(replyToDestination))
-            .expiration(getExpiration(msg))
             .timestamp(Instant.ofEpochMilli(msg.getJMSTimestamp()))
-            .type(msg.getJMSType())
-            .contentEncoding(getStringProperty(msg, "contentEncoding"))
-            .build();
+            .type(msg.getJMSType());
+
+        if (projection.replyTo()) {
+            AbstractDestination replyToDestination = msg.getJMSReplyTo();
+            builder
+                .replyTo(getDestinationName(replyToDestination))
+                .replyToType(getDestinationType(replyToDestination));
+        }
+        if (projection.expiration()) {
+            builder.expiration(getExpiration(msg));
+        }
+        if (projection.contentEncoding()) {
+            builder.contentEncoding(msg.isBytesMessageInstance() ? contentEncoding : getStringProperty(msg, CONTENT_ENCODING_PROPERTY));
+        }
+
+        return builder.build();
     }
 
     /**
@@ -141,13 +203,17 @@ public final class JMSMessage implements Output {
         return destination.getDestinationType();
     }
 
-    private static byte[] getBodyAsBytes(AbstractMessage msg) throws AbstractJMSException {
+    /**
+     * Text is handed over as is, so STRING bodies are not copied and JSON is parsed from the characters,
+     * instead of going through an intermediate UTF-8 byte array.
+     */
+    private static Object deserializeBody(AbstractMessage msg, Serde serde, boolean streamJson, String contentEncoding, int maxDecompressedSize) throws AbstractJMSException, IOException {
         if (msg.isTextMessageInstance()) {
-            String text = msg.getText();
-            return text != null ? text.getBytes(java.nio.charset.StandardCharsets.UTF_8) : null;
+            return streamJson && serde.type() == SerdeType.JSON ? JsonPayload.of(msg.getText()) : serde.deserialize(msg.getText());
         }
         if (msg.isBytesMessageInstance()) {
-            return msg.getByteArray();
+            byte[] body = Compression.decompress(CompressionType.ofEncoding(contentEncoding), msg.getByteArray(), maxDecompressedSize);
+            return streamJson && serde.type() == SerdeType.JSON ? JsonPayload.of(body) : serde.deserialize(body);
         }
         throw new IllegalArgumentException("Unsupported JMS message type: " + msg.getClass().getName());
     }
@@ -160,8 +226,24 @@ public final class JMSMessage implements Output {
         }
     }
 
-    private static Map<String, Object> extractProperties(AbstractMessage msg) {
+    private static Map<String, Object> extractProperties(AbstractMessage msg, Projection projection) {
         try {
+            if (projection.includeHeaders() != null) {
+                // only the included properties are read, without enumerating the others
+                if (projection.includeHeaders().isEmpty()) {
+                    return Collections.emptyMap();
+                }
+
+                Map<String, Object> properties = new HashMap<>();
+                for (String name : projection.includeHeaders()) {
+                    Object value = msg.getObjectProperty(name);
+                    if (value != null && !projection.excludeHeaders().contains(name)) {
+                        properties.put(name, value);
+                    }
+                }
+                return properties;
+            }
+
             Map<String, Object> properties = new HashMap<>();
             Enumeration<?> propertyNames = msg.getPropertyNames();
             if (propertyNames == null) {
@@ -169,7 +251,9 @@ public final class JMSMessage implements Output {
             }
             while (propertyNames.hasMoreElements()) {
                 String name = (String) propertyNames.nextElement();
-                properties.put(name, msg.getObjectProperty(name));
+                if (!projection.excludeHeaders().contains(name)) {
+                    properties.put(name, msg.getObjectProperty(name));
+                }
             }
             return properties;
         } catch (AbstractJMSException e) {
@@ -189,4 +273,40 @@ public final class JMSMessage implements Output {
             return null;
         }
     }
+
+    /**
+     * The headers and optional fields extracted from a message.
+     *
+     * @param includeHeaders The only headers to extract, or null for all of them.
+     * @param excludeHeaders Headers never extracted.
+     */
+    record Projection(Set<String> includeHeaders, Set<String> excludeHeaders, boolean replyTo, boolean expiration, boolean contentEncoding) {
+        static final Projection ALL = new Projection(null, Set.of(), true, true, true);
+
+        private static final Set<String> OPTIONAL_FIELDS = Set.of("replyTo", "expiration", "contentEncoding");
+
+        static Projection render(
+            RunContext runContext,
+            Property<List<String>> includeHeaders,
+            Property<List<String>> excludeHeaders,
+            Property<List<String>> excludeFields) throws IllegalVariableEvaluationException {
+            Set<String> rIncludeHeaders = includeHeaders != null ? Set.copyOf(runContext.render(includeHeaders).asList(String.class)) : null;
+            Set<String> rExcludeHeaders = excludeHeaders != null ? Set.copyOf(runContext.render(excludeHeaders).asList(String.class)) : Set.of();
+            Set<String> rExcludeFields = excludeFields != null ? Set.copyOf(runContext.render(excludeFields).asList(String.class)) : Set.of();
+
+            for (String field : rExcludeFields) {
+                if (!OPTIONAL_FIELDS.contains(field)) {
+                    throw new IllegalArgumentException("Unknown field '" + field + "' in `excludeFields`, expected one of " + OPTIONAL_FIELDS);
+                }
+            }
+
+            return new Projection(
+                rIncludeHeaders,
+                rExcludeHeaders,
+                !rExcludeFields.contains("replyTo"),
+                !rExcludeFields.contains("expiration"),
+                !rExcludeFields.contains("contentEncoding")
+            );
+        }
+    }
 }
@@ -0,0 +1,128 @@
+package io.kestra.plugin.jms;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+
+import at.conapi.oss.jms.adapter.impl.ConnectionAdapter;
+import at.conapi.oss.jms.adapter.impl.ConnectionFactoryAdapter;
+
+/**
+ * A worker-wide, reference-counted JMS connection shared by the realtime triggers using the same rendered
+ * connection factory configuration and credentials. Each trigger opens its own sessions and consumers on it.
+ * <p>
+ * A failure reported by the ExceptionListener is fanned out to every trigger using the connection, and the
+ * connection is removed from the registry so that reconnecting triggers share a new one. The connection itself
+ * is closed by the last trigger releasing it.
+ */
+final class JMSSharedConnection {
+    // guarded by itself
+    private static final Map<JMSConnectionPool.Key, JMSSharedConnection> SHARED = new HashMap<>();
+
+    private final JMSConnectionPool.Key key;
+    private final ConnectionAdapter connection;
+    private final List<Handle> handles = new CopyOnWriteArrayList<>();
+
+    // guarded by SHARED
+    private int references;
+    private boolean broken;
+
+    private JMSSharedConnection(JMSConnectionPool.Key key, ConnectionAdapter connection) {
+        this.key = key;
+        this.connection = connection;
+    }
+
+    /**
+     * Acquires the shared connection for the rendered configuration, opening it on first use.
+     * The handle must be closed to release the connection.
+     *
+     * @param onException Called with the connection and the failure when the connection is reported as lost.
+     */
+    static Handle acquire(RunContext runContext, ConnectionFactoryConfig factoryConfig, BiConsumer<ConnectionAdapter, Throwable> onException) throws Exception {
+        JMSConnectionFactory factoryService = new JMSConnectionFactory();
+        ConnectionFactoryCache.Key factoryKey = factoryService.renderKey(runContext, factoryConfig);
+
+        String rUsername = factoryConfig.getUsername() != null ? runContext.render(factoryConfig.getUsername()) : null;
+        String rPassword = factoryConfig.getPassword() != null ? runContext.render(factoryConfig.getPassword()) : null;
+        JMSConnectionPool.Key key = JMSConnectionPool.Key.of(factoryKey, rUsername, rPassword);
+
+        synchronized (SHARED) {
+            JMSSharedConnection shared = SHARED.get(key);
+            if (shared == null) {
+                // opened under the lock, so triggers starting together don't open one connection each
+                ConnectionFactoryAdapter factory = factoryService.create(runContext, factoryConfig, factoryKey);
+                ConnectionAdapter connection = (ConnectionAdapter) (rUsername != null ? factory.createConnection(rUsername, rPassword) : factory.createConnection());
+                shared = new JMSSharedConnection(key, connection);
+                connection.setExceptionListener(shared::onException);
+                SHARED.put(key, shared);
+            }
+
+            shared.references++;
+            Handle handle = new Handle(shared, onException);
+            shared.handles.add(handle);
+            return handle;
+        }
+    }
+
+    private void onException(Throwable exception) {
+        synchronized (SHARED) {
+            this.broken = true;
+            SHARED.remove(this.key, this);
+        }
+
+        for (Handle handle : this.handles) {
+            handle.onException.accept(this.connection, exception);
+        }
+    }
+
+    private void release(Handle handle) {
+        this.handles.remove(handle);
+
+        synchronized (SHARED) {
+            if (--this.references > 0) {
+                return;
+            }
+            if (!this.broken) {
+                SHARED.remove(this.key, this);
+            }
+        }
+
+        try {
+            this.connection.close();
+        } catch (Exception e) {
+            // Ignore exceptions on close
+        }
+    }
+
+    /**
+     * A reference to the shared connection, held by a single trigger.
+     */
+    static final class Handle implements AutoCloseable {
+        private final JMSSharedConnection shared;
+        private final BiConsumer<ConnectionAdapter, Throwable> onException;
+        private boolean closed;
+
+        private Handle(JMSSharedConnection shared, BiConsumer<ConnectionAdapter, Throwable> onException) {
+            this.shared = shared;
+            this.onException = onException;
+        }
+
+        ConnectionAdapter connection() {
+            return this.shared.connection;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.shared.release(this);
+        }
+    }
+}
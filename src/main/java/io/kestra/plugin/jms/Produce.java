@@ -1,5 +1,18 @@
 package io.kestra.plugin.jms;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.slf4j.Logger;
 
 import io.kestra.core.models.annotations.Example;
@@ -11,13 +24,15 @@ import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.jms.serde.Compression;
+import io.kestra.plugin.jms.serde.CompressionType;
+import io.kestra.plugin.jms.serde.Serde;
 import io.kestra.plugin.jms.serde.SerdeType;
 
 import at.conapi.oss.jms.adapter.AbstractDestination;
 import at.conapi.oss.jms.adapter.AbstractMessage;
 import at.conapi.oss.jms.adapter.AbstractProducer;
 import at.conapi.oss.jms.adapter.AbstractSession;
-import at.conapi.oss.jms.adapter.impl.ConnectionAdapter;
 import at.conapi.oss.jms.adapter.impl.ProducerAdapter;
 import at.conapi.oss.jms.adapter.impl.SessionAdapter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -25,6 +40,9 @@ import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * A Kestra task to produce messages to a JMS-compliant message broker.
@@ -37,7 +55,7 @@ import reactor.core.publisher.Flux;
 @NoArgsConstructor
 @Schema(
     title = "Publish messages to a JMS destination",
-    description = "Connects with the configured JMS ConnectionFactory and publishes rendered payloads from `from` to the destination name as a queue or topic. Defaults use deliveryMode 2 (PERSISTENT), priority 4, timeToLive 0 (no expiry); payloads are serialized via serdeType (STRING default, JSON, BYTES) and plain strings without JSON/URI markers are sent as text."
+    description = "Connects with the configured JMS ConnectionFactory and publishes rendered payloads from `from` to the destination name as a queue or topic. Defaults use deliveryMode 2 (PERSISTENT), priority 4, timeToLive 0 (no expiry); payloads are serialized via serdeType (STRING default, JSON, BYTES, MSGPACK, CBOR, AVRO, PROTOBUF) and plain strings without JSON/URI markers are sent as text."
 )
 @Plugin(
     aliases = { "io.kestra.plugin.jms.JMSProducer" },
@@ -84,17 +102,17 @@ public class Produce extends AbstractJmsTask implements RunnableTask<Produce.Out
     private JMSDestination destination;
 
     @Builder.Default
-    @Schema(title = "JMS priority", description = "Rendered integer priority 0-9; default 4")
+    @Schema(title = "JMS priority", description = "Rendered integer priority 0-9; default 4. A `priority` set on a message in `from` takes precedence.")
     @PluginProperty(group = "advanced")
     private Property<Integer> priority = Property.ofValue(4);
 
     @Builder.Default
-    @Schema(title = "JMS delivery mode", description = "Rendered delivery mode flag; default 2 (PERSISTENT)")
+    @Schema(title = "JMS delivery mode", description = "Rendered delivery mode flag; default 2 (PERSISTENT). A `deliveryMode` set on a message in `from` takes precedence.")
     @PluginProperty(group = "advanced")
     private Property<Integer> deliveryMode = Property.ofValue(2);
 
     @Builder.Default
-    @Schema(title = "Message time to live", description = "Rendered TTL in milliseconds; default 0 keeps the message indefinitely")
+    @Schema(title = "Message time to live", description = "Rendered TTL in milliseconds; default 0 keeps the message indefinitely. A `timeToLive` set on a message in `from` takes precedence.")
     @PluginProperty(group = "destination")
     private Property<Long> timeToLive = Property.ofValue(0L);
 
@@ -102,15 +120,74 @@ public class Produce extends AbstractJmsTask implements RunnableTask<Produce.Out
     @PluginProperty(group = "main")
     private Object from;
 
+    @Schema(
+        title = "Transacted batch size",
+        description = "When set, messages are sent on a transacted session committed every `batchSize` messages (or every `batchInterval`, whichever comes first), letting the broker group its journal writes. Unset sends each message on a non-transacted session."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Integer> batchSize;
+
+    @Schema(
+        title = "Transacted batch interval (ms)",
+        description = "Rendered maximum age in milliseconds of an open batch, checked as messages are sent; only used with `batchSize`. Unset commits on size only."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Long> batchInterval;
+
+    @Builder.Default
+    @Schema(
+        title = "Send asynchronously",
+        description = "Keep up to `maxInFlight` sends outstanding instead of waiting for each broker acknowledgement before sending the next message. Sends run on additional sessions of the same connection, so ordering between messages is not guaranteed. Cannot be combined with `batchSize`.",
+        defaultValue = "false"
+    )
+    @PluginProperty(group = "processing")
+    private Property<Boolean> async = Property.ofValue(false);
+
+    @Builder.Default
+    @Schema(title = "Maximum in-flight messages", description = "Rendered upper bound on outstanding sends in `async` mode, which is also the number of sessions used; default 8")
+    @PluginProperty(group = "processing")
+    private Property<Integer> maxInFlight = Property.ofValue(8);
+
     @Builder.Default
     @Schema(
         title = "Serialization format for message body",
-        description = "Determines how message bodies are serialized: STRING for text, JSON for JSON-formatted text, BYTES for binary data.",
+        description = "Determines how message bodies are serialized: STRING for text, JSON for JSON-formatted text, BYTES for binary data, MSGPACK and CBOR for binary encodings of structured data, AVRO and PROTOBUF for binary encodings following `schema`. Binary formats are sent as BytesMessages.",
         defaultValue = "STRING"
     )
     @PluginProperty(group = "advanced")
     private SerdeType serdeType = SerdeType.STRING;
 
+    @Schema(
+        title = "Schema of AVRO and PROTOBUF bodies",
+        description = "For AVRO, the schema as JSON or the `kestra://` or `nsfile://` URI of a schema file. For PROTOBUF, the URI of a descriptor set generated with `protoc --include_imports --descriptor_set_out`. Loaded and compiled once per run."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> schema;
+
+    @Schema(
+        title = "Protobuf message type",
+        description = "Fully-qualified name of the message in the `schema` descriptor set, e.g. `com.acme.Order`; required for PROTOBUF."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> messageType;
+
+    @Builder.Default
+    @Schema(
+        title = "Compression codec",
+        description = "Compresses message bodies with GZIP, ZSTD or LZ4 and sends them as BytesMessages with a `contentEncoding` property set to `gzip`, `zstd` or `lz4`, which `Consume` and the triggers use to decompress them transparently; default NONE. Bodies use the standard gzip, zstd and LZ4 frame formats, and consumers reject bodies decompressing to more than their `maxDecompressedSize`, 64 MiB by default. Codec contexts and buffers are reused across the messages of the run.",
+        defaultValue = "NONE"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<CompressionType> compression = Property.ofValue(CompressionType.NONE);
+
+    @Builder.Default
+    @Schema(
+        title = "Minimum size to compress",
+        description = "Rendered size in bytes of the serialized body below which it is sent uncompressed, as compression rarely pays off for small bodies; default 1024."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Integer> compressionMinSize = Property.ofValue(1024);
+
     /**
      * The main execution method for the task, called by the Kestra runner.
      * It orchestrates the entire process of connecting to the broker, preparing the
@@ -125,79 +202,378 @@ public class Produce extends AbstractJmsTask implements RunnableTask<Produce.Out
         int messageCount;
         Logger logger = runContext.logger();
         String rDestName = runContext.render(this.destination.getDestinationName());
+        int rBatchSize = runContext.render(this.batchSize).as(Integer.class).orElse(0);
+        long rBatchInterval = runContext.render(this.batchInterval).as(Long.class).orElse(0L);
+        boolean rAsync = runContext.render(this.async).as(Boolean.class).orElse(false);
+        if (rAsync && rBatchSize > 0) {
+            throw new IllegalArgumentException("`async` cannot be combined with `batchSize`, transacted sessions must be sent from a single thread.");
+        }
+        Batch batch = null;
+
+        CompressionType rCompression = runContext.render(this.compression).as(CompressionType.class).orElse(CompressionType.NONE);
+        int rCompressionMinSize = runContext.render(this.compressionMinSize).as(Integer.class).orElse(1024);
 
         try (
-            ConnectionAdapter connection = this.createConnection(runContext);
-            SessionAdapter session = (SessionAdapter) connection.createSession()
+            Compression compressor = Compression.of(rCompression, rCompressionMinSize);
+            JMSConnectionPool.Lease lease = this.openSession(runContext, rBatchSize > 0)
         ) {
+            SessionAdapter session = lease.session();
             String destType = this.destination.getDestinationType() == AbstractDestination.DestinationType.QUEUE ? SessionAdapter.QUEUE : SessionAdapter.TOPIC;
             String destinationUrl = String.format("%s://%s", destType, rDestName);
             AbstractDestination jmsDestination = session.createDestination(destinationUrl);
 
+            // Render the delivery settings and compile the schema once per run, messages may still override the settings individually
+            SendDefaults defaults = new SendDefaults(
+                runContext.render(this.deliveryMode).as(Integer.class).orElseThrow(),
+                runContext.render(this.priority).as(Integer.class).orElseThrow(),
+                runContext.render(this.timeToLive).as(Long.class).orElseThrow(),
+                Serde.of(runContext, this.serdeType, this.schema, this.messageType),
+                compressor
+            );
+
+            if (rBatchSize > 0) {
+                batch = new Batch(session, rBatchSize, rBatchInterval);
+            }
+            Batch currentBatch = batch;
+
             try (ProducerAdapter producer = (ProducerAdapter) session.createProducer(jmsDestination)) {
                 Flux<JMSMessage> messages = this.processFrom(runContext);
-                messageCount = messages
-                    .map(message ->
-                    {
-                        try {
-                            this.send(session, producer, message, runContext);
-                            logger.debug(
-                                "Successfully sent JMS message to {}",
-                                destinationUrl
-                            );
-                            return 1;
-                        } catch (Exception e) {
-                            logger.error("Failed to send JMS message", e);
-                            throw new RuntimeException(e);
-                        }
-                    })
-                    .reduce(0, Integer::sum)
-                    .blockOptional()
-                    .orElse(0);
+
+                if (rAsync) {
+                    int rMaxInFlight = Math.max(1, runContext.render(this.maxInFlight).as(Integer.class).orElse(8));
+                    messageCount = this.sendAsync(runContext, lease, producer, jmsDestination, messages, defaults, rMaxInFlight, rDestName);
+                } else {
+                    messageCount = messages
+                        .map(message ->
+                        {
+                            try {
+                                this.send(session, producer, message, defaults);
+                                logger.debug(
+                                    "Successfully sent JMS message to {}",
+                                    destinationUrl
+                                );
+                                if (currentBatch != null) {
+                                    currentBatch.sent();
+                                }
+                                return 1;
+                            } catch (Exception e) {
+                                logger.error("Failed to send JMS message", e);
+                                throw new RuntimeException(e);
+                            }
+                        })
+                        .reduce(0, Integer::sum)
+                        .blockOptional()
+                        .orElse(0);
+                }
+
+                if (currentBatch != null) {
+                    currentBatch.commit();
+                }
+            } catch (Exception e) {
+                if (currentBatch != null) {
+                    currentBatch.rollback(logger);
+                }
+                // a pooled session in an unknown state must not be handed out again
+                lease.invalidate();
+                throw e;
             }
         }
 
         runContext.metric(Counter.of("records", messageCount, "destination", rDestName));
-        return Output.builder().messagesCount(messageCount).build();
+        if (batch != null) {
+            runContext.metric(Counter.of("batches", batch.committedBatches, "destination", rDestName));
+        }
+
+        return Output.builder()
+            .messagesCount(messageCount)
+            .batchesCommitted(batch != null ? batch.committedBatches : null)
+            .build();
+    }
+
+    /**
+     * Sends the messages with up to {@code maxInFlight} sends outstanding at the same time.
+     * <p>
+     * The adapter only exposes the blocking JMS send, so each in-flight send runs on a virtual thread with its own
+     * session and producer (JMS sessions are single-threaded). The first slot reuses the leased session, the additional
+     * ones are created lazily and closed at the end: borrowed from the pool when {@code connectionPool} is set, so its
+     * session limits apply and sends wait for a slot when the pool is exhausted, or created on the dedicated connection
+     * otherwise. Flux demand is bounded by the window, which propagates backpressure to the message source. Failures
+     * are collected rather than cancelling in-flight sends, a slot whose send failed is closed instead of being reused,
+     * and the task fails once all sends completed if any of them failed. When every slot was dropped, the next send
+     * waits for the pool up to its borrow timeout rather than for a slot that will never be released.
+     *
+     * @return The number of messages acknowledged by the broker.
+     */
+    private int sendAsync(
+        RunContext runContext,
+        JMSConnectionPool.Lease lease,
+        ProducerAdapter producer,
+        AbstractDestination jmsDestination,
+        Flux<JMSMessage> messages,
+        SendDefaults defaults,
+        int maxInFlight,
+        String rDestName
+    ) throws Exception {
+        Logger logger = runContext.logger();
+        BlockingQueue<SenderSlot> idleSlots = new ArrayBlockingQueue<>(maxInFlight);
+        List<SenderSlot> createdSlots = new CopyOnWriteArrayList<>();
+        idleSlots.add(new SenderSlot(null, lease.session(), producer));
+        AtomicInteger slotCount = new AtomicInteger(1);
+
+        AtomicInteger acked = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Scheduler scheduler = Schedulers.fromExecutorService(executor);
+
+            messages
+                .flatMap(
+                    message -> Mono.fromCallable(() ->
+                        {
+                            SenderSlot slot = idleSlots.poll();
+                            while (slot == null) {
+                                int open = slotCount.getAndIncrement();
+                                if (open < maxInFlight) {
+                                    try {
+                                        // with no slot left to wait for, wait for the pool up to its borrow timeout instead
+                                        slot = this.openSlot(runContext, lease, jmsDestination, open == 0);
+                                    } catch (Exception e) {
+                                        slotCount.decrementAndGet();
+                                        throw e;
+                                    }
+                                    if (slot != null) {
+                                        createdSlots.add(slot);
+                                        break;
+                                    }
+                                }
+                                slotCount.decrementAndGet();
+
+                                // every slot is busy or the pool is exhausted, re-checked in case a failed slot was dropped
+                                slot = idleSlots.poll(100, TimeUnit.MILLISECONDS);
+                            }
+
+                            try {
+                                this.send(slot.session(), slot.producer(), message, defaults);
+                            } catch (Exception e) {
+                                // a session in an unknown state is not reused, another slot may be opened in its place
+                                if (createdSlots.remove(slot)) {
+                                    closeSlot(slot, true);
+                                }
+                                slotCount.decrementAndGet();
+                                throw e;
+                            }
+                            idleSlots.add(slot);
+                            return acked.incrementAndGet();
+                        })
+                        .subscribeOn(scheduler)
+                        .onErrorResume(e ->
+                        {
+                            failed.incrementAndGet();
+                            if (!firstFailure.compareAndSet(null, e)) {
+                                logger.debug("Failed to send JMS message", e);
+                            }
+                            return Mono.empty();
+                        }),
+                    maxInFlight
+                )
+                .blockLast();
+        } finally {
+            executor.shutdown();
+            for (SenderSlot slot : createdSlots) {
+                closeSlot(slot, false);
+            }
+        }
+
+        if (failed.get() > 0) {
+            runContext.metric(Counter.of("failed", failed.get(), "destination", rDestName));
+            throw new IllegalStateException(
+                failed.get() + " JMS messages failed to be sent, " + acked.get() + " messages were acknowledged by the broker",
+                firstFailure.get()
+            );
+        }
+
+        return acked.get();
+    }
+
+    /**
+     * Opens an additional in-flight slot, borrowing its session from the pool when pooling is enabled.
+     *
+     * @param wait Whether to wait for a pooled session up to the borrow timeout, failing if none was released.
+     * @return the slot, or null when every session of the pool is leased and {@code wait} is false.
+     */
+    private SenderSlot openSlot(RunContext runContext, JMSConnectionPool.Lease lease, AbstractDestination jmsDestination, boolean wait) throws Exception {
+        if (this.getConnectionPool() == null) {
+            SessionAdapter session = JMSConnectionPool.createSession(lease.connection(), SessionAdapter.AUTO_ACKNOWLEDGE);
+            try {
+                return new SenderSlot(null, session, (ProducerAdapter) session.createProducer(jmsDestination));
+            } catch (Exception e) {
+                closeQuietly(session);
+                throw e;
+            }
+        }
+
+        JMSConnectionPool.Lease slotLease = wait ?
+            JMSConnectionPool.borrow(runContext, this.getConnectionFactoryConfig(), this.getConnectionPool(), SessionAdapter.AUTO_ACKNOWLEDGE) :
+            JMSConnectionPool.tryBorrow(runContext, this.getConnectionFactoryConfig(), this.getConnectionPool(), SessionAdapter.AUTO_ACKNOWLEDGE);
+        if (slotLease == null) {
+            return null;
+        }
+        try {
+            return new SenderSlot(slotLease, slotLease.session(), (ProducerAdapter) slotLease.session().createProducer(jmsDestination));
+        } catch (Exception e) {
+            slotLease.invalidate();
+            slotLease.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes an additional slot, giving its session back to the pool unless its send failed.
+     */
+    private void closeSlot(SenderSlot slot, boolean failed) {
+        closeQuietly(slot.producer());
+        if (slot.lease() == null) {
+            closeQuietly(slot.session());
+            return;
+        }
+        if (failed) {
+            slot.lease().invalidate();
+        }
+        slot.lease().close();
+    }
+
+    /**
+     * @param lease The lease of a pooled session, or null for a session of the leased connection.
+     */
+    private record SenderSlot(JMSConnectionPool.Lease lease, SessionAdapter session, ProducerAdapter producer) {
     }
 
     /**
      * Serializes a single Kestra JMSMessage into a provider-specific JMS message
      * and sends it using the given producer. It now supports creating different
      * message types based on the SerdeType.
+     * Delivery mode, priority, time to live and correlation ID set on the message take precedence over the task defaults.
      *
      * @param session The active AbstractSession, used to create the JMS message.
      * @param producer The active AbstractProducer used to send the message.
      * @param message The Kestra JMSMessage to be sent.
-     * @param runContext The Kestra run context
+     * @param defaults The delivery settings rendered, and the serde compiled, once for the run.
      * @throws Exception if serialization or sending fails.
      */
-    private void send(AbstractSession session, AbstractProducer producer, JMSMessage message, RunContext runContext) throws Exception {
+    private void send(AbstractSession session, AbstractProducer producer, JMSMessage message, SendDefaults defaults) throws Exception {
 
         AbstractMessage jmsMessage = switch (this.serdeType) {
             case STRING -> {
                 String stringBody = message.getData() != null ? message.getData().toString() : null;
-                // Assuming createTextMessage exists or is added to SessionAdapter
-                yield session.createTextMessage(stringBody, message.getHeaders());
+                yield this.createTextMessage(session, stringBody, message.getHeaders(), defaults.compression());
             }
             case JSON -> {
                 String jsonBody = JacksonMapper.ofJson().writeValueAsString(message.getData());
                 // Use the same TextMessage creation for JSON strings
-                yield session.createTextMessage(jsonBody, message.getHeaders());
+                yield this.createTextMessage(session, jsonBody, message.getHeaders(), defaults.compression());
             }
-            case BYTES -> {
-                byte[] byteBody = this.serdeType.serialize(message.getData());
+            case BYTES, MSGPACK, CBOR, AVRO, PROTOBUF -> {
+                byte[] byteBody = defaults.serde().serialize(message.getData());
+                byte[] compressed = defaults.compression() != null ? defaults.compression().compress(byteBody) : null;
                 // Use the new createBytesMessage method
-                yield session.createBytesMessage(byteBody, message.getHeaders());
+                yield compressed != null ?
+                    session.createBytesMessage(compressed, withContentEncoding(message.getHeaders(), defaults.compression())) :
+                    session.createBytesMessage(byteBody, message.getHeaders());
             }
-            default -> throw new IllegalStateException("Unexpected SerdeType: " + this.serdeType);
         };
 
-        var rDeliveryMode = runContext.render(deliveryMode).as(Integer.class).orElseThrow();
-        var rPriority = runContext.render(priority).as(Integer.class).orElseThrow();
-        var rTimeToLive = runContext.render(timeToLive).as(Long.class).orElseThrow();
+        if (message.getCorrelationId() != null) {
+            jmsMessage.setJMSCorrelationID(message.getCorrelationId());
+        }
+
+        producer.send(
+            jmsMessage,
+            message.getDeliveryMode() != null ? message.getDeliveryMode() : defaults.deliveryMode(),
+            message.getPriority() != null ? message.getPriority() : defaults.priority(),
+            message.getTimeToLive() != null ? message.getTimeToLive() : defaults.timeToLive()
+        );
+    }
+
+    /**
+     * Tracks the open transaction of a transacted session and commits it on size or age.
+     */
+    private static final class Batch {
+        private final SessionAdapter session;
+        private final int size;
+        private final long intervalMillis;
+        private int pending;
+        private int committedMessages;
+        private int committedBatches;
+        private long openedAt;
+
+        private Batch(SessionAdapter session, int size, long intervalMillis) {
+            this.session = session;
+            this.size = size;
+            this.intervalMillis = intervalMillis;
+        }
+
+        private void sent() throws Exception {
+            if (this.pending++ == 0) {
+                this.openedAt = System.currentTimeMillis();
+            }
+
+            if (this.pending >= this.size || (this.intervalMillis > 0 && System.currentTimeMillis() - this.openedAt >= this.intervalMillis)) {
+                this.commit();
+            }
+        }
+
+        private void commit() throws Exception {
+            if (this.pending == 0) {
+                return;
+            }
+
+            try {
+                this.session.commit();
+            } catch (Exception e) {
+                throw new IllegalStateException(
+                    "Failed to commit a batch of " + this.pending + " JMS messages, " + this.committedMessages + " messages were committed before the failure",
+                    e
+                );
+            }
 
-        producer.send(jmsMessage, rDeliveryMode, rPriority, rTimeToLive);
+            this.committedMessages += this.pending;
+            this.committedBatches++;
+            this.pending = 0;
+        }
+
+        private void rollback(Logger logger) {
+            try {
+                this.session.rollback();
+            } catch (Exception e) {
+                logger.warn("Failed to roll back the JMS transaction", e);
+            }
+            logger.error("JMS publishing failed, {} messages were committed before the failure", this.committedMessages);
+        }
+    }
+
+    /**
+     * Text bodies large enough to be compressed are sent as compressed BytesMessages, the others as TextMessages.
+     */
+    private AbstractMessage createTextMessage(AbstractSession session, String text, Map<String, Object> headers, Compression compression) throws Exception {
+        byte[] compressed = compression != null && text != null ? compression.compress(text.getBytes(StandardCharsets.UTF_8)) : null;
+        if (compressed == null) {
+            return session.createTextMessage(text, headers);
+        }
+        return session.createBytesMessage(compressed, withContentEncoding(headers, compression));
+    }
+
+    private static Map<String, Object> withContentEncoding(Map<String, Object> headers, Compression compression) {
+        Map<String, Object> encoded = headers != null ? new HashMap<>(headers) : new HashMap<>();
+        encoded.put(JMSMessage.CONTENT_ENCODING_PROPERTY, compression.type().encoding());
+        return encoded;
+    }
+
+    /**
+     * The task level delivery settings, rendered once per run.
+     */
+    private record SendDefaults(int deliveryMode, int priority, long timeToLive, Serde serde, Compression compression) {
     }
 
     /**
@@ -233,5 +609,8 @@ public class Produce extends AbstractJmsTask implements RunnableTask<Produce.Out
     public static class Output implements io.kestra.core.models.tasks.Output {
         @Schema(title = "Number of messages published")
         private final Integer messagesCount;
+
+        @Schema(title = "Number of committed transacted batches", description = "Only set when `batchSize` is used")
+        private final Integer batchesCommitted;
     }
 }
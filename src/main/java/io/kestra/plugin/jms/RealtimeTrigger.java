@@ -1,5 +1,7 @@
 package io.kestra.plugin.jms;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import org.reactivestreams.Publisher;
@@ -12,13 +14,12 @@ import io.kestra.core.models.executions.Execution;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.triggers.*;
 import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+import io.kestra.plugin.jms.configuration.DeduplicationConfig;
+import io.kestra.plugin.jms.configuration.ReconnectConfig;
+import io.kestra.plugin.jms.serde.Compression;
+import io.kestra.plugin.jms.serde.Serde;
 import io.kestra.plugin.jms.serde.SerdeType;
 
-import at.conapi.oss.jms.adapter.AbstractDestination;
-import at.conapi.oss.jms.adapter.impl.ConnectionAdapter;
-import at.conapi.oss.jms.adapter.impl.ConnectionFactoryAdapter;
-import at.conapi.oss.jms.adapter.impl.ConsumerAdapter;
-import at.conapi.oss.jms.adapter.impl.SessionAdapter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -95,121 +96,145 @@ public class RealtimeTrigger extends AbstractTrigger implements RealtimeTriggerI
     private String messageSelector;
 
     @Builder.Default
-    @Schema(title = "Deserialization format", description = "STRING for text, JSON for JSON text, BYTES for binary payloads.", defaultValue = "STRING")
+    @Schema(title = "Deserialization format", description = "STRING for text, JSON for JSON text, BYTES for binary payloads, MSGPACK and CBOR for binary encodings of structured data, AVRO and PROTOBUF for binary encodings following `schema`.", defaultValue = "STRING")
     @PluginProperty(group = "processing")
     private Property<SerdeType> serdeType = Property.ofValue(SerdeType.STRING);
 
+    @Schema(
+        title = "Schema of AVRO and PROTOBUF bodies",
+        description = "For AVRO, the schema as JSON or the `kestra://` or `nsfile://` URI of a schema file. For PROTOBUF, the URI of a descriptor set generated with `protoc --include_imports --descriptor_set_out`. Loaded and compiled once per start of the trigger."
+    )
+    @PluginProperty(group = "processing")
+    private Property<String> schema;
+
+    @Schema(
+        title = "Protobuf message type",
+        description = "Fully-qualified name of the message in the `schema` descriptor set, e.g. `com.acme.Order`; required for PROTOBUF."
+    )
+    @PluginProperty(group = "processing")
+    private Property<String> messageType;
+
+    @Builder.Default
+    @Schema(
+        title = "Maximum decompressed body size (bytes)",
+        description = "Rendered size in bytes a body compressed by `Produce` may decompress to; a larger body fails the trigger, so that a corrupt or hostile message can't exhaust the memory. Default 64 MiB (67108864)."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Integer> maxDecompressedSize = Property.ofValue(Compression.DEFAULT_MAX_DECOMPRESSED_SIZE);
+
+    @Builder.Default
+    @Schema(
+        title = "Buffer size",
+        description = "Rendered maximum number of received messages waiting for their execution to be emitted or for their acknowledgement; default 1000. Once reached, delivery is paused with `connection.stop()`, or by holding the listeners of a shared connection, until the buffered messages are emitted, instead of growing the buffer on heap."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Integer> bufferSize = Property.ofValue(1000);
+
+    @Builder.Default
+    @Schema(
+        title = "Concurrency",
+        description = "Rendered number of messages processed in parallel; default 1. For a queue without `orderingKey`, that many sessions and listeners are opened on the connection. With an `orderingKey` or on a topic without a shared subscription, a single session receives the messages and hands them to that many lanes, each processing in order on its own virtual thread."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Integer> concurrency = Property.ofValue(1);
+
+    @Schema(
+        title = "Ordering key",
+        description = "Rendered name of the message property (e.g., `JMSXGroupID`) whose value keeps messages ordered when `concurrency` is greater than 1: messages with the same value are always processed by the same lane, in the order they were received. Messages without the property are spread across lanes."
+    )
+    @PluginProperty(group = "processing")
+    private Property<String> orderingKey;
+
+    @Builder.Default
+    @Schema(
+        title = "Reconnection",
+        description = "When the connection to the broker is lost, a new one is opened in place with a jittered exponential backoff, reusing the cached connection factory, instead of failing the trigger. Unacknowledged messages are redelivered on the new connection. Reconnections and downtime are reported as the `reconnects` and `reconnect.downtime` metrics."
+    )
+    @PluginProperty(group = "connection")
+    private ReconnectConfig reconnect = ReconnectConfig.builder().build();
+
+    @Builder.Default
+    @Schema(
+        title = "Share the connection",
+        description = "Open this trigger's sessions and consumers on a connection shared, and reference-counted, by every trigger of the worker with this setting and the same rendered connection factory configuration and credentials, instead of a dedicated connection; default false. A shared connection is never stopped, so delivery is paused by holding the session's listener once the buffer is full."
+    )
+    @PluginProperty(group = "connection")
+    private Property<Boolean> shareConnection = Property.ofValue(false);
+
+    @Schema(
+        title = "Included headers",
+        description = "Names of the only message properties extracted into `headers`; all of them when not set. An empty list skips reading properties altogether, otherwise only the listed ones are read, without enumerating the others."
+    )
+    @PluginProperty(group = "processing")
+    private Property<List<String>> includeHeaders;
+
+    @Schema(
+        title = "Excluded headers",
+        description = "Names of message properties never extracted into `headers`."
+    )
+    @PluginProperty(group = "processing")
+    private Property<List<String>> excludeHeaders;
+
+    @Schema(
+        title = "Excluded fields",
+        description = "Optional message fields that are not read from the message: any of `replyTo` (with `replyToType`), `expiration` and `contentEncoding`."
+    )
+    @PluginProperty(group = "processing")
+    private Property<List<String>> excludeFields;
+
+    @Schema(
+        title = "Redelivery deduplication",
+        description = "Drop redelivered messages whose execution was already emitted, e.g. when the acknowledgement was lost on a failover, instead of starting a duplicate execution. Keys are remembered on the worker, also across restarts of the trigger; only messages flagged `JMSRedelivered` are looked up. Lookups and hits are reported as the `deduplication.lookups` and `deduplication.hits` metrics."
+    )
+    @PluginProperty(group = "processing")
+    private DeduplicationConfig deduplication;
+
+    @Builder.Default
+    @Schema(
+        title = "Metrics interval",
+        description = "Interval at which the trigger reports its metrics, covering the time since the previous report: `messages.received` and `acknowledgements` counters, `stage.decode`, `stage.emit` and `stage.acknowledge` timers, the end-to-end latency from the JMSTimestamp as `latency` counters per `bucket` with a `latency.max` timer, and the `reconnects` counter with the `reconnect.downtime` timer; default PT1M, at least PT10S, PT0S reports only on shutdown."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Duration> metricsInterval = Property.ofValue(Duration.ofMinutes(1));
+
     @Override
     public Publisher<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) {
-        Flux<JMSMessage> messageFlux = Flux.create(emitter ->
+        Flux<JMSListener.Delivery<Execution>> messageFlux = JMSListener.flux(emitter ->
         {
-            // We use a self-managed wrapper for JMS resources to ensure they are all closed correctly.
-            JmsListener jmsListener = null;
-            try {
-                // The runContext is needed for rendering variables in the configuration.
-                var runContext = conditionContext.getRunContext();
-
-                // Render Property fields
-                SerdeType rSerdeType = runContext.render(serdeType).as(SerdeType.class).orElseThrow();
-
-                jmsListener = new JmsListener(runContext, connectionFactoryConfig, destination, messageSelector, rSerdeType, emitter::next, emitter::error);
-                jmsListener.start();
-
-                // onDispose is a crucial hook that Kestra calls when the trigger is disabled or the flow is deleted.
-                // It ensures we clean up the connection.
-                emitter.onDispose(jmsListener::close);
-            } catch (Exception e) {
-                // If setup fails, we emit the error and the Flux terminates.
-                emitter.error(e);
-                if (jmsListener != null) {
-                    jmsListener.close();
-                }
-            }
+            // The runContext is needed for rendering variables in the configuration.
+            var runContext = conditionContext.getRunContext();
+
+            // Render Property fields
+            Serde rSerde = Serde.of(runContext, runContext.render(serdeType).as(SerdeType.class).orElseThrow(), schema, messageType);
+            int rMaxDecompressedSize = runContext.render(maxDecompressedSize).as(Integer.class).orElse(Compression.DEFAULT_MAX_DECOMPRESSED_SIZE);
+            int rBufferSize = Math.max(1, runContext.render(bufferSize).as(Integer.class).orElse(1000));
+            int rConcurrency = Math.max(1, runContext.render(concurrency).as(Integer.class).orElse(1));
+            String rOrderingKey = runContext.render(orderingKey).as(String.class).orElse(null);
+            boolean rShareConnection = runContext.render(shareConnection).as(Boolean.class).orElse(false);
+            Duration rMetricsInterval = runContext.render(metricsInterval).as(Duration.class).orElse(Duration.ofMinutes(1));
+            JMSMessage.Projection rProjection = JMSMessage.Projection.render(runContext, includeHeaders, excludeHeaders, excludeFields);
+
+            return new JMSListener<>(
+                runContext,
+                connectionFactoryConfig,
+                destination,
+                messageSelector,
+                message -> JMSMessage.of(message, rSerde, false, rProjection, rMaxDecompressedSize),
+                rBufferSize,
+                rConcurrency,
+                rOrderingKey,
+                JMSListener.Reconnect.render(runContext, reconnect),
+                rShareConnection,
+                JMSDeduplicator.of(runContext, deduplication, getId(), runContext.render(destination.getDestinationName())),
+                rMetricsInterval,
+                message -> TriggerService.generateRealtimeExecution(this, conditionContext, context, message),
+                emitter::next,
+                emitter::error
+            );
         });
 
-        return messageFlux.map(message -> TriggerService.generateRealtimeExecution(this, conditionContext, context, message));
-    }
-
-    /**
-     * A helper class to manage the lifecycle of JMS resources for the trigger.
-     */
-    private static class JmsListener {
-        private final io.kestra.core.runners.RunContext runContext;
-        private final ConnectionFactoryConfig connectionFactoryConfig;
-        private final JMSDestination destination;
-        private final String messageSelector;
-        private final SerdeType serdeType;
-        private final java.util.function.Consumer<JMSMessage> messageConsumer;
-        private final java.util.function.Consumer<Throwable> errorConsumer;
-
-        private ConnectionAdapter connection;
-
-        public JmsListener(
-            io.kestra.core.runners.RunContext runContext,
-            ConnectionFactoryConfig connectionFactoryConfig,
-            JMSDestination destination,
-            String messageSelector,
-            SerdeType serdeType,
-            java.util.function.Consumer<JMSMessage> messageConsumer,
-            java.util.function.Consumer<Throwable> errorConsumer) {
-            this.runContext = runContext;
-            this.connectionFactoryConfig = connectionFactoryConfig;
-            this.destination = destination;
-            this.messageSelector = messageSelector;
-            this.serdeType = serdeType;
-            this.messageConsumer = messageConsumer;
-            this.errorConsumer = errorConsumer;
-        }
-
-        public void start() throws Exception {
-            JMSConnectionFactory factoryService = new JMSConnectionFactory();
-            ConnectionFactoryAdapter factory = factoryService.create(runContext, this.connectionFactoryConfig);
-
-            String rUsername = this.connectionFactoryConfig.getUsername() != null ? runContext.render(this.connectionFactoryConfig.getUsername()) : null;
-            String rPassword = this.connectionFactoryConfig.getPassword() != null ? runContext.render(this.connectionFactoryConfig.getPassword()) : null;
-
-            this.connection = (ConnectionAdapter) (rUsername != null ? factory.createConnection(rUsername, rPassword) : factory.createConnection());
-
-            this.connection.setExceptionListener(errorConsumer::accept);
-
-            // Use CLIENT_ACKNOWLEDGE for at-least-once delivery semantics
-            SessionAdapter session = (SessionAdapter) connection.createSession(false, SessionAdapter.CLIENT_ACKNOWLEDGE);
-
-            String rDestName = runContext.render(destination.getDestinationName());
-            String rDestType = destination.getDestinationType() == AbstractDestination.DestinationType.QUEUE ? SessionAdapter.QUEUE : SessionAdapter.TOPIC;
-            String destinationUrl = String.format("%s://%s", rDestType, rDestName);
-            AbstractDestination jmsDestination = session.createDestination(destinationUrl);
-
-            ConsumerAdapter consumer = (ConsumerAdapter) session.createConsumer(jmsDestination, messageSelector);
-
-            consumer.setMessageListener(message ->
-            {
-                try {
-                    JMSMessage kestraMessage = JMSMessage.of(message, serdeType);
-                    messageConsumer.accept(kestraMessage);
-
-                    // Acknowledge message after successful processing
-                    message.acknowledge();
-                } catch (Exception e) {
-                    // Don't acknowledge - message will be redelivered
-                    errorConsumer.accept(e);
-                    runContext.logger().warn("Failed to process JMS message, will be redelivered", e);
-                }
-            });
-
-            connection.start();
-            runContext.logger().info("JMS trigger listener started for destination '{}'", rDestName);
-        }
-
-        public void close() {
-            if (this.connection != null) {
-                try {
-                    this.connection.close();
-                } catch (Exception e) {
-                    runContext.logger().warn("Error closing JMS connection on trigger shutdown.", e);
-                }
-            }
-        }
+        // Messages are acknowledged only once their execution has been handed over downstream
+        return JMSListener.emitThenAcknowledge(messageFlux, JMSListener.Delivery::item, JMSListener.Delivery::emitted);
     }
 
     // This method is available for a trigger interface but not used for realtime triggers.
@@ -0,0 +1,170 @@
+package io.kestra.plugin.jms;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.*;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+import io.kestra.plugin.jms.configuration.ConnectionPoolConfig;
+import io.kestra.plugin.jms.serde.Compression;
+import io.kestra.plugin.jms.serde.SerdeType;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * A Kestra trigger that periodically drains messages from a JMS queue or topic into internal storage
+ * and starts a flow execution when some were found.
+ */
+@SuperBuilder
+@ToString
+@EqualsAndHashCode(callSuper = true)
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Poll a JMS destination and start a flow on new messages",
+    description = "On every `interval`, consumes up to `maxRecords` messages or for up to `maxDuration` like the `Consume` task, stores them as an ION file in internal storage and starts one execution with its URI and count; no execution is started when no message was found. The connection is borrowed from a worker-wide pool and reused between polls."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Every minute, start a flow with the messages received on a JMS queue.",
+            full = true,
+            code = """
+                id: jms-polling-flow
+                namespace: company.team
+
+                tasks:
+                  - id: log-batch
+                    type: io.kestra.plugin.core.log.Log
+                    message: "Received {{ trigger.count }} messages in {{ trigger.uri }}"
+
+                triggers:
+                  - id: jms-polling-trigger
+                    type: io.kestra.plugin.jms.Trigger
+                    interval: PT1M
+                    connectionFactoryConfig:
+                      type: DIRECT
+                      providerJarPaths: kestra:///jms/activemq-client.jar
+                      connectionFactoryClass: org.apache.activemq.ActiveMQConnectionFactory
+                    destination:
+                      name: "kestra.events"
+                      destinationType: QUEUE
+                    maxRecords: 1000
+                    maxDuration: PT10S
+                """
+        )
+    }
+)
+public class Trigger extends AbstractTrigger implements PollingTriggerInterface, TriggerOutput<Consume.Output> {
+
+    // NOTE: Using @PluginProperty instead of Property<ConnectionFactoryConfig> wrapper, see RealtimeTrigger.
+    @Schema(title = "JMS connection factory configuration")
+    @PluginProperty(group = "main")
+    @NotNull
+    private ConnectionFactoryConfig connectionFactoryConfig;
+
+    @Builder.Default
+    @Schema(
+        title = "Connection pool",
+        description = "Pool the connection is borrowed from on each poll, shared with the tasks and triggers of the worker using the same rendered connection factory configuration and credentials. Keep its `idleTimeout` above the `interval` so the connection is reused between polls."
+    )
+    @PluginProperty(group = "connection")
+    private ConnectionPoolConfig connectionPool = ConnectionPoolConfig.builder().build();
+
+    @PluginProperty(group = "main")
+    @NotNull
+    @Schema(title = "Destination to consume", description = "Rendered queue or topic name; destinationType selects QUEUE vs TOPIC")
+    private JMSDestination destination;
+
+    @Schema(
+        title = "Message selector",
+        description = "Optional JMS selector to filter messages server-side using SQL-92 syntax (e.g., \"JMSPriority > 5 AND type = 'order'\")."
+    )
+    @PluginProperty(dynamic = true, group = "processing")
+    private String messageSelector;
+
+    @Builder.Default
+    @Schema(title = "Deserialization format", description = "STRING for text, JSON for JSON text, BYTES for binary payloads, MSGPACK and CBOR for binary encodings of structured data, AVRO and PROTOBUF for binary encodings following `schema`.", defaultValue = "STRING")
+    @PluginProperty(group = "processing")
+    private Property<SerdeType> serdeType = Property.ofValue(SerdeType.STRING);
+
+    @Schema(
+        title = "Schema of AVRO and PROTOBUF bodies",
+        description = "For AVRO, the schema as JSON or the `kestra://` or `nsfile://` URI of a schema file. For PROTOBUF, the URI of a descriptor set generated with `protoc --include_imports --descriptor_set_out`. Loaded and compiled once per poll."
+    )
+    @PluginProperty(group = "processing")
+    private Property<String> schema;
+
+    @Schema(
+        title = "Protobuf message type",
+        description = "Fully-qualified name of the message in the `schema` descriptor set, e.g. `com.acme.Order`; required for PROTOBUF."
+    )
+    @PluginProperty(group = "processing")
+    private Property<String> messageType;
+
+    @Builder.Default
+    @Schema(
+        title = "Maximum decompressed body size (bytes)",
+        description = "Rendered size in bytes a body compressed by `Produce` may decompress to; a larger body fails the poll, so that a corrupt or hostile message can't exhaust the memory. Default 64 MiB (67108864)."
+    )
+    @PluginProperty(group = "processing")
+    private Property<Integer> maxDecompressedSize = Property.ofValue(Compression.DEFAULT_MAX_DECOMPRESSED_SIZE);
+
+    @Builder.Default
+    @Schema(title = "Interval between polls", defaultValue = "PT1M")
+    @PluginProperty(group = "execution")
+    private final Duration interval = Duration.ofMinutes(1);
+
+    @Builder.Default
+    @Schema(title = "Maximum messages per poll", description = "Rendered upper bound on the messages consumed on each poll; default 1000")
+    @PluginProperty(group = "execution")
+    private Property<Integer> maxRecords = Property.ofValue(1000);
+
+    @Builder.Default
+    @Schema(title = "Maximum poll duration", description = "Rendered maximum time spent consuming on each poll; default PT10S")
+    @PluginProperty(group = "execution")
+    private Property<Duration> maxDuration = Property.ofValue(Duration.ofSeconds(10));
+
+    @Override
+    public Optional<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) throws Exception {
+        RunContext runContext = conditionContext.getRunContext();
+
+        Duration rMaxDuration = runContext.render(this.maxDuration).as(Duration.class).orElse(Duration.ofSeconds(10));
+
+        Consume task = Consume.builder()
+            .id(this.id)
+            .type(Consume.class.getName())
+            .connectionFactoryConfig(this.connectionFactoryConfig)
+            .connectionPool(this.connectionPool)
+            .destination(this.destination)
+            .messageSelector(this.messageSelector)
+            .serdeType(this.serdeType)
+            .schema(this.schema)
+            .messageType(this.messageType)
+            .maxDecompressedSize(this.maxDecompressedSize)
+            .maxMessages(this.maxRecords)
+            .maxWaitTimeout(Property.ofValue(rMaxDuration.toMillis()))
+            .build();
+        Consume.Output run = task.run(runContext);
+
+        runContext.logger().debug("Consumed '{}' messages.", run.getCount());
+
+        if (run.getCount() == 0) {
+            return Optional.empty();
+        }
+
+        Execution execution = TriggerService.generateExecution(this, conditionContext, context, run);
+
+        return Optional.of(execution);
+    }
+}
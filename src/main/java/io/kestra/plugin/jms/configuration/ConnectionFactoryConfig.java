@@ -1,5 +1,6 @@
 package io.kestra.plugin.jms.configuration;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -67,6 +68,15 @@ public abstract class ConnectionFactoryConfig {
     @PluginProperty(group = "advanced")
     private Property<Boolean> useFilteredClassLoader = Property.ofValue(false);
 
+    @Builder.Default
+    @Schema(
+        title = "Connection factory cache idle timeout",
+        description = "The provider classloader and ConnectionFactory are cached on the worker, keyed on the rendered configuration, and reused by every task and trigger using the same configuration. They are evicted once unused for this duration; set to `PT0S` to build a new factory on every run.",
+        defaultValue = "PT10M"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Duration> cacheIdleTimeout = Property.ofValue(Duration.ofMinutes(10));
+
     // This is a hack to make JavaDoc working as annotation processor didn't run before JavaDoc.
     // See https://stackoverflow.com/questions/51947791/javadoc-cannot-find-symbol-error-when-using-lomboks-builder-annotation
     public static abstract class ConnectionFactoryConfigBuilder<C extends ConnectionFactoryConfig, B extends ConnectionFactoryConfigBuilder<C, B>> {
@@ -0,0 +1,47 @@
+package io.kestra.plugin.jms.configuration;
+
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@JsonDeserialize(builder = ConnectionPoolConfig.ConnectionPoolConfigBuilder.class)
+public class ConnectionPoolConfig {
+    @Builder.Default
+    @Schema(title = "Maximum pooled connections", description = "Upper bound on broker connections opened by the pool; default 2")
+    @PluginProperty(group = "advanced")
+    private Property<Integer> maxConnections = Property.ofValue(2);
+
+    @Builder.Default
+    @Schema(title = "Maximum sessions per connection", description = "Upper bound on sessions leased concurrently from a single pooled connection; default 10")
+    @PluginProperty(group = "advanced")
+    private Property<Integer> maxSessionsPerConnection = Property.ofValue(10);
+
+    @Builder.Default
+    @Schema(title = "Idle timeout", description = "Pooled connections without leased sessions are closed once unused for this duration; default PT5M")
+    @PluginProperty(group = "advanced")
+    private Property<Duration> idleTimeout = Property.ofValue(Duration.ofMinutes(5));
+
+    @Builder.Default
+    @Schema(title = "Borrow timeout", description = "Maximum time to wait for a free session when the pool is exhausted; default PT30S")
+    @PluginProperty(group = "advanced")
+    private Property<Duration> borrowTimeout = Property.ofValue(Duration.ofSeconds(30));
+
+    @Builder.Default
+    @Schema(title = "Validate on borrow", description = "Check that a pooled connection is still usable before handing out one of its sessions; default true")
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> validateOnBorrow = Property.ofValue(true);
+
+    @JsonPOJOBuilder(withPrefix = "")
+    public static class ConnectionPoolConfigBuilder {
+    }
+}
@@ -0,0 +1,36 @@
+package io.kestra.plugin.jms.configuration;
+
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@JsonDeserialize(builder = DeduplicationConfig.DeduplicationConfigBuilder.class)
+public class DeduplicationConfig {
+    @Schema(title = "Deduplication key", description = "Name of the message property identifying a message; the JMSMessageID when not set")
+    @PluginProperty(group = "advanced")
+    private Property<String> key;
+
+    @Builder.Default
+    @Schema(title = "Maximum remembered messages", description = "Upper bound on the keys remembered, kept in primitive arrays of at most 32 bytes per key; default 100000")
+    @PluginProperty(group = "advanced")
+    private Property<Integer> maxSize = Property.ofValue(100_000);
+
+    @Builder.Default
+    @Schema(title = "Time to live", description = "Minimum time a key is remembered, as long as fewer than half of `maxSize` newer keys were recorded since; default PT1H")
+    @PluginProperty(group = "advanced")
+    private Property<Duration> ttl = Property.ofValue(Duration.ofHours(1));
+
+    @JsonPOJOBuilder(withPrefix = "")
+    public static class DeduplicationConfigBuilder {
+    }
+}
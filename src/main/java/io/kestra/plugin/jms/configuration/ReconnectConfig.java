@@ -0,0 +1,42 @@
+package io.kestra.plugin.jms.configuration;
+
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@JsonDeserialize(builder = ReconnectConfig.ReconnectConfigBuilder.class)
+public class ReconnectConfig {
+    @Builder.Default
+    @Schema(title = "Maximum reconnection attempts", description = "Attempts made after the connection is lost before the trigger fails; default 10, 0 fails right away")
+    @PluginProperty(group = "advanced")
+    private Property<Integer> maxAttempts = Property.ofValue(10);
+
+    @Builder.Default
+    @Schema(title = "Maximum reconnection duration", description = "Time after which the trigger fails if the connection could not be restored; default PT5M")
+    @PluginProperty(group = "advanced")
+    private Property<Duration> maxDuration = Property.ofValue(Duration.ofMinutes(5));
+
+    @Builder.Default
+    @Schema(title = "Initial backoff", description = "Delay before the second attempt, doubled after each failed attempt; default PT0.5S")
+    @PluginProperty(group = "advanced")
+    private Property<Duration> initialDelay = Property.ofValue(Duration.ofMillis(500));
+
+    @Builder.Default
+    @Schema(title = "Maximum backoff", description = "Upper bound on the delay between two attempts; default PT30S")
+    @PluginProperty(group = "advanced")
+    private Property<Duration> maxDelay = Property.ofValue(Duration.ofSeconds(30));
+
+    @JsonPOJOBuilder(withPrefix = "")
+    public static class ReconnectConfigBuilder {
+    }
+}
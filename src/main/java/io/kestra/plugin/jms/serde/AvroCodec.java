@@ -0,0 +1,167 @@
+package io.kestra.plugin.jms.serde;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.*;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+/**
+ * Avro binary encoding of a single datum, without container header, for a schema parsed once.
+ * Records are exchanged with the flow as maps, strings and enums as strings, bytes and fixed as byte arrays.
+ * The decoder, encoder and output buffer are kept per thread and reused for every message, as a codec is shared by
+ * the sessions and lanes of a run.
+ */
+final class AvroCodec {
+    // a buffer grown by a larger message is dropped rather than kept by its thread
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private final Schema schema;
+    private final GenericDatumReader<Object> reader;
+    private final GenericDatumWriter<Object> writer;
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+    private final ThreadLocal<Encoding> encodings = new ThreadLocal<>();
+
+    AvroCodec(String schema) {
+        this.schema = new Schema.Parser().parse(schema);
+        this.reader = new GenericDatumReader<>(this.schema);
+        this.writer = new GenericDatumWriter<>(this.schema);
+    }
+
+    Object decode(byte[] message) throws IOException {
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(message, this.decoders.get());
+        this.decoders.set(decoder);
+        // the datum isn't reused, values like fixed are handed to the flow as is
+        return toValue(this.reader.read(null, decoder));
+    }
+
+    byte[] encode(Object data) throws IOException {
+        Encoding encoding = this.encodings.get();
+        if (encoding == null) {
+            encoding = new Encoding();
+        }
+        // reconfiguring flushes what a failed write left in the encoder, discarded by the reset
+        encoding.encoder = EncoderFactory.get().binaryEncoder(encoding.outputStream, encoding.encoder);
+        encoding.outputStream.reset();
+
+        this.writer.write(toDatum(data, this.schema), encoding.encoder);
+        encoding.encoder.flush();
+        byte[] encoded = encoding.outputStream.toByteArray();
+
+        this.encodings.set(encoded.length <= MAX_RETAINED_BUFFER_SIZE ? encoding : null);
+        return encoded;
+    }
+
+    private static Object toValue(Object datum) {
+        return switch (datum) {
+            case null -> null;
+            case GenericRecord record -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (Schema.Field field : record.getSchema().getFields()) {
+                    map.put(field.name(), toValue(record.get(field.pos())));
+                }
+                yield map;
+            }
+            case CharSequence text -> text.toString();
+            case GenericEnumSymbol<?> symbol -> symbol.toString();
+            case GenericFixed fixed -> fixed.bytes();
+            case ByteBuffer buffer -> {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.duplicate().get(bytes);
+                yield bytes;
+            }
+            case Collection<?> items -> items.stream().map(AvroCodec::toValue).toList();
+            case Map<?, ?> entries -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                entries.forEach((key, value) -> map.put(key.toString(), toValue(value)));
+                yield map;
+            }
+            default -> datum;
+        };
+    }
+
+    private static Object toDatum(Object value, Schema schema) {
+        if (schema.getType() == Schema.Type.UNION) {
+            return toDatum(value, branch(value, schema));
+        }
+        if (value == null) {
+            // rejected by the writer unless the schema is null
+            return null;
+        }
+
+        return switch (schema.getType()) {
+            case RECORD -> {
+                Map<?, ?> map = (Map<?, ?>) value;
+                GenericData.Record record = new GenericData.Record(schema);
+                for (Schema.Field field : schema.getFields()) {
+                    if (!map.containsKey(field.name()) && field.hasDefaultValue()) {
+                        record.put(field.pos(), GenericData.get().getDefaultValue(field));
+                    } else {
+                        record.put(field.pos(), toDatum(map.get(field.name()), field.schema()));
+                    }
+                }
+                yield record;
+            }
+            case ARRAY -> ((Collection<?>) value).stream().map(item -> toDatum(item, schema.getElementType())).toList();
+            case MAP -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                ((Map<?, ?>) value).forEach((key, item) -> map.put(key.toString(), toDatum(item, schema.getValueType())));
+                yield map;
+            }
+            case ENUM -> new GenericData.EnumSymbol(schema, value.toString());
+            case FIXED -> new GenericData.Fixed(schema, bytes(value));
+            case BYTES -> ByteBuffer.wrap(bytes(value));
+            case STRING -> value.toString();
+            case INT -> ((Number) value).intValue();
+            case LONG -> ((Number) value).longValue();
+            case FLOAT -> ((Number) value).floatValue();
+            case DOUBLE -> ((Number) value).doubleValue();
+            case BOOLEAN, NULL, UNION -> value;
+        };
+    }
+
+    private static byte[] bytes(Object value) {
+        return value instanceof byte[] bytes ? bytes : value.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Picks the first branch of the union able to hold the value.
+     */
+    private static Schema branch(Object value, Schema union) {
+        for (Schema type : union.getTypes()) {
+            boolean matches = switch (type.getType()) {
+                case NULL -> value == null;
+                case RECORD, MAP -> value instanceof Map;
+                case ARRAY -> value instanceof Collection;
+                case STRING, ENUM -> value instanceof CharSequence;
+                case BYTES, FIXED -> value instanceof byte[];
+                case INT, LONG -> value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+                case FLOAT, DOUBLE -> value instanceof Number;
+                case BOOLEAN -> value instanceof Boolean;
+                case UNION -> false;
+            };
+            if (matches) {
+                return type;
+            }
+        }
+
+        throw new IllegalArgumentException("No branch of the Avro union " + union + " matches the value '" + value + "'");
+    }
+
+    /**
+     * The output buffer of a thread, with the encoder writing to it.
+     */
+    private static final class Encoding {
+        private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        private BinaryEncoder encoder;
+    }
+}
@@ -0,0 +1,583 @@
+package io.kestra.plugin.jms.serde;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdInputStream;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import net.jpountz.xxhash.XXHash32;
+import net.jpountz.xxhash.XXHashFactory;
+
+/**
+ * Compresses message bodies with a codec, reusing its contexts and output buffers across messages:
+ * each sending session borrows a context for the time of a message, so contexts are never shared concurrently.
+ * A context keeps its gzip {@link Deflater} or {@link Inflater}, its zstd contexts and its output buffer;
+ * the LZ4 block codecs and checksums are stateless and shared by every context.
+ * <p>
+ * Bodies use the standard gzip (RFC 1952), zstd and LZ4 frame formats, so they can be exchanged with other producers
+ * and consumers. The gzip and LZ4 frames are written and parsed here over the pooled codecs, with every length
+ * checked against the body: gzip supports the optional header fields, the CRC and size trailer and multi-member
+ * bodies, LZ4 supports independent blocks, block and content checksums and skippable frames. Only zstd frames
+ * written without their content size go through a stream allocated for the body.
+ * <p>
+ * Decompression contexts are pooled for the whole worker, as they are used by every consumer. A body decompressing
+ * to more than the consumer's {@code maxDecompressedSize}, {@link #DEFAULT_MAX_DECOMPRESSED_SIZE} bytes by default,
+ * is rejected before the memory is allocated, so that a corrupt or hostile message can't exhaust the heap.
+ */
+public final class Compression implements AutoCloseable {
+    public static final int DEFAULT_MAX_DECOMPRESSED_SIZE = 64 * 1024 * 1024;
+
+    private static final int MAX_IDLE_DECOMPRESSORS = 2 * Runtime.getRuntime().availableProcessors();
+    private static final Queue<Context> DECOMPRESSORS = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger IDLE_DECOMPRESSORS = new AtomicInteger();
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final int ZSTD_LEVEL = 3;
+    private static final int MAX_POOLED_BUFFER = 1024 * 1024;
+    // no limit when compressing, short of the largest array
+    private static final int NO_LIMIT = Integer.MAX_VALUE - 16;
+    // ZSTD_CONTENTSIZE_UNKNOWN, the frame was written without its content size
+    private static final long ZSTD_CONTENT_SIZE_UNKNOWN = -1;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int GZIP_FEXTRA = 4;
+    private static final int GZIP_FNAME = 8;
+    private static final int GZIP_FCOMMENT = 16;
+    private static final int GZIP_FHCRC = 2;
+    private static final int GZIP_RESERVED = 0xe0;
+
+    private static final int LZ4_MAGIC = 0x184D2204;
+    private static final int LZ4_SKIPPABLE_MAGIC = 0x184D2A50;
+    private static final int LZ4_VERSION = 1;
+    private static final int LZ4_BLOCK_INDEPENDENCE = 0x20;
+    private static final int LZ4_BLOCK_CHECKSUM = 0x10;
+    private static final int LZ4_CONTENT_SIZE = 0x08;
+    private static final int LZ4_CONTENT_CHECKSUM = 0x04;
+    private static final int LZ4_RESERVED = 0x02;
+    private static final int LZ4_DICTIONARY_ID = 0x01;
+    private static final int LZ4_UNCOMPRESSED_BLOCK = 0x80000000;
+    // BD byte of 64 KB blocks, the block size written by this class
+    private static final int LZ4_BLOCK_SIZE_ID = 4;
+    private static final int LZ4_BLOCK_SIZE = 64 * 1024;
+    private static final LZ4Compressor LZ4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4SafeDecompressor LZ4_DECOMPRESSOR = LZ4Factory.fastestInstance().safeDecompressor();
+    private static final XXHash32 XXHASH = XXHashFactory.fastestInstance().hash32();
+
+    private final CompressionType type;
+    private final int minSize;
+    private final Queue<Context> contexts = new ConcurrentLinkedQueue<>();
+
+    private Compression(CompressionType type, int minSize) {
+        this.type = type;
+        this.minSize = minSize;
+    }
+
+    /**
+     * @param minSize The size in bytes below which bodies are sent uncompressed.
+     * @return the compression of a run, or null for NONE.
+     */
+    public static Compression of(CompressionType type, int minSize) {
+        return type == null || type == CompressionType.NONE ? null : new Compression(type, minSize);
+    }
+
+    public CompressionType type() {
+        return this.type;
+    }
+
+    /**
+     * @return the compressed body, or null when the body is smaller than the minimum size and must be sent as is.
+     */
+    public byte[] compress(byte[] body) throws IOException {
+        if (body == null || body.length < this.minSize) {
+            return null;
+        }
+
+        Context context = this.contexts.poll();
+        if (context == null) {
+            context = new Context();
+        }
+        try {
+            return switch (this.type) {
+                case GZIP -> context.gzip(body);
+                case LZ4 -> context.lz4(body);
+                case ZSTD -> context.zstd(body);
+                case NONE -> body;
+            };
+        } finally {
+            context.trim();
+            this.contexts.add(context);
+        }
+    }
+
+    /**
+     * Decompresses a body compressed with the codec of its {@code contentEncoding}.
+     *
+     * @param maxSize The size in bytes the body may decompress to.
+     * @throws IOException if the body is invalid or decompresses to more than {@code maxSize} bytes.
+     */
+    public static byte[] decompress(CompressionType type, byte[] body, int maxSize) throws IOException {
+        if (body == null || type == CompressionType.NONE) {
+            return body;
+        }
+
+        int limit = Math.min(Math.max(maxSize, 0), NO_LIMIT);
+
+        Context context = DECOMPRESSORS.poll();
+        if (context == null) {
+            context = new Context();
+        } else {
+            IDLE_DECOMPRESSORS.decrementAndGet();
+        }
+        try {
+            return switch (type) {
+                case GZIP -> context.gunzip(body, limit);
+                case LZ4 -> context.unlz4(body, limit);
+                case ZSTD -> context.unzstd(body, limit);
+                case NONE -> body;
+            };
+        } finally {
+            context.trim();
+            if (IDLE_DECOMPRESSORS.incrementAndGet() <= MAX_IDLE_DECOMPRESSORS) {
+                DECOMPRESSORS.add(context);
+            } else {
+                IDLE_DECOMPRESSORS.decrementAndGet();
+                context.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Context context;
+        while ((context = this.contexts.poll()) != null) {
+            context.close();
+        }
+    }
+
+    private static void require(byte[] body, int position, long length, String format) throws EOFException {
+        if (length < 0 || body.length - position < length) {
+            throw new EOFException("Unexpected end of " + format + " body");
+        }
+    }
+
+    private static int readUnsignedShortLE(byte[] body, int position) {
+        return (body[position] & 0xff) | (body[position + 1] & 0xff) << 8;
+    }
+
+    private static int readIntLE(byte[] body, int position) {
+        return (body[position] & 0xff)
+            | (body[position + 1] & 0xff) << 8
+            | (body[position + 2] & 0xff) << 16
+            | (body[position + 3] & 0xff) << 24;
+    }
+
+    private static long readLongLE(byte[] body, int position) {
+        return (readIntLE(body, position) & 0xffffffffL) | (long) readIntLE(body, position + 4) << 32;
+    }
+
+    private static IOException tooLarge(int limit) {
+        return new IOException("Body decompresses to more than " + limit + " bytes");
+    }
+
+    /**
+     * The codec contexts and the output buffer used by a single thread at a time, created on first use.
+     */
+    private static final class Context {
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+        private final CRC32 crc = new CRC32();
+        private byte[] buffer = new byte[CHUNK_SIZE];
+        private int size;
+        private Deflater deflater;
+        private Inflater inflater;
+        private ZstdCompressCtx zstdCompress;
+        private ZstdDecompressCtx zstdDecompress;
+
+        /**
+         * Drops a buffer grown for an unusually large body, rather than keeping it pooled.
+         */
+        private void trim() {
+            if (this.buffer.length > MAX_POOLED_BUFFER) {
+                this.buffer = new byte[CHUNK_SIZE];
+            }
+        }
+
+        /**
+         * Makes room for at least {@code length} more bytes, or up to one byte over the limit so that exceeding
+         * it is detected once written.
+         *
+         * @return the free space of the buffer.
+         */
+        private int reserve(int length, int limit) {
+            long needed = Math.min((long) this.size + length, (long) limit + 1);
+            if (needed > this.buffer.length) {
+                this.buffer = Arrays.copyOf(this.buffer, (int) Math.min(Math.max(needed, 2L * this.buffer.length), (long) limit + 1));
+            }
+            return this.buffer.length - this.size;
+        }
+
+        private void written(int length, int limit) throws IOException {
+            this.size += length;
+            if (this.size > limit) {
+                throw tooLarge(limit);
+            }
+        }
+
+        private void append(byte[] source, int offset, int length, int limit) throws IOException {
+            if ((long) this.size + length > limit) {
+                throw tooLarge(limit);
+            }
+            this.reserve(length, limit);
+            System.arraycopy(source, offset, this.buffer, this.size, length);
+            this.size += length;
+        }
+
+        private void appendIntLE(int value) throws IOException {
+            this.reserve(4, NO_LIMIT);
+            this.buffer[this.size] = (byte) value;
+            this.buffer[this.size + 1] = (byte) (value >>> 8);
+            this.buffer[this.size + 2] = (byte) (value >>> 16);
+            this.buffer[this.size + 3] = (byte) (value >>> 24);
+            this.written(4, NO_LIMIT);
+        }
+
+        private byte[] result() {
+            return Arrays.copyOf(this.buffer, this.size);
+        }
+
+        private byte[] gzip(byte[] body) throws IOException {
+            if (this.deflater == null) {
+                this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            }
+            this.deflater.reset();
+            this.crc.reset();
+            this.crc.update(body);
+
+            this.size = 0;
+            this.append(GZIP_HEADER, 0, GZIP_HEADER.length, NO_LIMIT);
+            this.deflater.setInput(body);
+            this.deflater.finish();
+            while (!this.deflater.finished()) {
+                int free = this.reserve(CHUNK_SIZE, NO_LIMIT);
+                this.written(this.deflater.deflate(this.buffer, this.size, free), NO_LIMIT);
+            }
+            this.appendIntLE((int) this.crc.getValue());
+            this.appendIntLE(body.length);
+            return this.result();
+        }
+
+        private byte[] gunzip(byte[] body, int limit) throws IOException {
+            if (this.inflater == null) {
+                this.inflater = new Inflater(true);
+            }
+
+            this.size = 0;
+            int position = 0;
+            do {
+                position = this.gunzipMember(body, position, limit);
+                // like GZIPInputStream, trailing bytes that don't start another member are ignored
+            } while (body.length - position >= GZIP_HEADER.length && (body[position] & 0xff) == 0x1f && (body[position + 1] & 0xff) == 0x8b);
+            return this.result();
+        }
+
+        /**
+         * @return the position following the member.
+         */
+        private int gunzipMember(byte[] body, int position, int limit) throws IOException {
+            int headerStart = position;
+            require(body, position, GZIP_HEADER.length, "GZIP");
+            if ((body[position] & 0xff) != 0x1f || (body[position + 1] & 0xff) != 0x8b) {
+                throw new ZipException("Not in GZIP format");
+            }
+            if (body[position + 2] != Deflater.DEFLATED) {
+                throw new ZipException("Unsupported GZIP compression method");
+            }
+            int flags = body[position + 3] & 0xff;
+            if ((flags & GZIP_RESERVED) != 0) {
+                throw new ZipException("Unsupported GZIP flags");
+            }
+            position += GZIP_HEADER.length;
+
+            if ((flags & GZIP_FEXTRA) != 0) {
+                require(body, position, 2, "GZIP");
+                int extraLength = readUnsignedShortLE(body, position);
+                position += 2;
+                require(body, position, extraLength, "GZIP");
+                position += extraLength;
+            }
+            if ((flags & GZIP_FNAME) != 0) {
+                position = skipZeroTerminated(body, position);
+            }
+            if ((flags & GZIP_FCOMMENT) != 0) {
+                position = skipZeroTerminated(body, position);
+            }
+            if ((flags & GZIP_FHCRC) != 0) {
+                require(body, position, 2, "GZIP");
+                this.crc.reset();
+                this.crc.update(body, headerStart, position - headerStart);
+                if (readUnsignedShortLE(body, position) != ((int) this.crc.getValue() & 0xffff)) {
+                    throw new ZipException("Corrupt GZIP header");
+                }
+                position += 2;
+            }
+
+            int memberStart = this.size;
+            this.inflater.reset();
+            this.inflater.setInput(body, position, body.length - position);
+            try {
+                while (!this.inflater.finished()) {
+                    int free = this.reserve(CHUNK_SIZE, limit);
+                    int inflated = this.inflater.inflate(this.buffer, this.size, free);
+                    this.written(inflated, limit);
+                    if (inflated == 0 && (this.inflater.needsInput() || this.inflater.needsDictionary())) {
+                        throw new EOFException("Unexpected end of GZIP body");
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("Corrupt GZIP body: " + e.getMessage());
+            }
+            position = body.length - this.inflater.getRemaining();
+
+            require(body, position, 8, "GZIP");
+            int memberSize = this.size - memberStart;
+            this.crc.reset();
+            this.crc.update(this.buffer, memberStart, memberSize);
+            if (readIntLE(body, position) != (int) this.crc.getValue()) {
+                throw new ZipException("Corrupt GZIP trailer, CRC mismatch");
+            }
+            // ISIZE is the size modulo 2^32, bodies are smaller than 2 GiB
+            if (readIntLE(body, position + 4) != memberSize) {
+                throw new ZipException("Corrupt GZIP trailer, size mismatch");
+            }
+            return position + 8;
+        }
+
+        private static int skipZeroTerminated(byte[] body, int position) throws EOFException {
+            while (position < body.length && body[position] != 0) {
+                position++;
+            }
+            require(body, position, 1, "GZIP");
+            return position + 1;
+        }
+
+        /**
+         * Writes a single frame of independent 64 KB blocks, with the content size and checksum.
+         */
+        private byte[] lz4(byte[] body) throws IOException {
+            this.size = 0;
+            this.appendIntLE(LZ4_MAGIC);
+
+            int descriptorStart = this.size;
+            this.reserve(11, NO_LIMIT);
+            this.buffer[this.size] = (byte) (LZ4_VERSION << 6 | LZ4_BLOCK_INDEPENDENCE | LZ4_CONTENT_SIZE | LZ4_CONTENT_CHECKSUM);
+            this.buffer[this.size + 1] = (byte) (LZ4_BLOCK_SIZE_ID << 4);
+            this.written(2, NO_LIMIT);
+            this.appendIntLE(body.length);
+            this.appendIntLE(0);
+            this.buffer[this.size] = (byte) (XXHASH.hash(this.buffer, descriptorStart, this.size - descriptorStart, 0) >> 8);
+            this.written(1, NO_LIMIT);
+
+            int maxBlockLength = LZ4_COMPRESSOR.maxCompressedLength(LZ4_BLOCK_SIZE);
+            for (int offset = 0; offset < body.length; offset += LZ4_BLOCK_SIZE) {
+                int length = Math.min(LZ4_BLOCK_SIZE, body.length - offset);
+                this.reserve(4 + maxBlockLength, NO_LIMIT);
+                int compressed = LZ4_COMPRESSOR.compress(body, offset, length, this.buffer, this.size + 4, maxBlockLength);
+                if (compressed < length) {
+                    this.appendIntLE(compressed);
+                    this.written(compressed, NO_LIMIT);
+                } else {
+                    // incompressible data is stored as is
+                    this.appendIntLE(length | LZ4_UNCOMPRESSED_BLOCK);
+                    this.append(body, offset, length, NO_LIMIT);
+                }
+            }
+
+            this.appendIntLE(0);
+            this.appendIntLE(XXHASH.hash(body, 0, body.length, 0));
+            return this.result();
+        }
+
+        private byte[] unlz4(byte[] body, int limit) throws IOException {
+            this.size = 0;
+            int position = 0;
+            do {
+                position = this.unlz4Frame(body, position, limit);
+            } while (position < body.length);
+            return this.result();
+        }
+
+        /**
+         * @return the position following the frame.
+         */
+        private int unlz4Frame(byte[] body, int position, int limit) throws IOException {
+            require(body, position, 4, "LZ4");
+            int magic = readIntLE(body, position);
+            position += 4;
+            if ((magic & 0xfffffff0) == LZ4_SKIPPABLE_MAGIC) {
+                require(body, position, 4, "LZ4");
+                long skipped = readIntLE(body, position) & 0xffffffffL;
+                position += 4;
+                require(body, position, skipped, "LZ4");
+                return position + (int) skipped;
+            }
+            if (magic != LZ4_MAGIC) {
+                throw new IOException("Not in LZ4 frame format");
+            }
+
+            int descriptorStart = position;
+            require(body, position, 2, "LZ4");
+            int flags = body[position] & 0xff;
+            int blockDescriptor = body[position + 1] & 0xff;
+            position += 2;
+            if (flags >> 6 != LZ4_VERSION || (flags & LZ4_RESERVED) != 0 || (blockDescriptor & 0x8f) != 0) {
+                throw new IOException("Unsupported LZ4 frame descriptor");
+            }
+            if ((flags & LZ4_BLOCK_INDEPENDENCE) == 0) {
+                throw new IOException("LZ4 frames with linked blocks are not supported");
+            }
+            if ((flags & LZ4_DICTIONARY_ID) != 0) {
+                throw new IOException("LZ4 frames with a dictionary are not supported");
+            }
+            int maxBlockSize = switch (blockDescriptor >> 4) {
+                case 4 -> 64 * 1024;
+                case 5 -> 256 * 1024;
+                case 6 -> 1024 * 1024;
+                case 7 -> 4 * 1024 * 1024;
+                default -> throw new IOException("Unsupported LZ4 block size");
+            };
+
+            long contentSize = -1;
+            if ((flags & LZ4_CONTENT_SIZE) != 0) {
+                require(body, position, 8, "LZ4");
+                contentSize = readLongLE(body, position);
+                if (contentSize < 0 || this.size + contentSize > limit) {
+                    throw tooLarge(limit);
+                }
+                position += 8;
+            }
+            require(body, position, 1, "LZ4");
+            if ((body[position] & 0xff) != (XXHASH.hash(body, descriptorStart, position - descriptorStart, 0) >> 8 & 0xff)) {
+                throw new IOException("Corrupt LZ4 frame descriptor");
+            }
+            position++;
+
+            boolean blockChecksum = (flags & LZ4_BLOCK_CHECKSUM) != 0;
+            int frameStart = this.size;
+            while (true) {
+                require(body, position, 4, "LZ4");
+                int blockSize = readIntLE(body, position);
+                position += 4;
+                if (blockSize == 0) {
+                    break;
+                }
+
+                int length = blockSize & ~LZ4_UNCOMPRESSED_BLOCK;
+                if (length > maxBlockSize) {
+                    throw new IOException("Corrupt LZ4 block size");
+                }
+                require(body, position, length + (blockChecksum ? 4L : 0L), "LZ4");
+                if (blockChecksum && readIntLE(body, position + length) != XXHASH.hash(body, position, length, 0)) {
+                    throw new IOException("Corrupt LZ4 block, checksum mismatch");
+                }
+
+                if ((blockSize & LZ4_UNCOMPRESSED_BLOCK) != 0) {
+                    this.append(body, position, length, limit);
+                } else {
+                    int free = this.reserve(maxBlockSize, limit);
+                    int decompressed;
+                    try {
+                        decompressed = LZ4_DECOMPRESSOR.decompress(body, position, length, this.buffer, this.size, free);
+                    } catch (LZ4Exception e) {
+                        // the room left is capped one byte over the limit, a block not fitting in it is too large
+                        throw free < maxBlockSize ? tooLarge(limit) : new IOException("Corrupt LZ4 block", e);
+                    }
+                    this.written(decompressed, limit);
+                }
+                position += length + (blockChecksum ? 4 : 0);
+            }
+
+            int frameSize = this.size - frameStart;
+            if (contentSize >= 0 && contentSize != frameSize) {
+                throw new IOException("Corrupt LZ4 frame, size mismatch");
+            }
+            if ((flags & LZ4_CONTENT_CHECKSUM) != 0) {
+                require(body, position, 4, "LZ4");
+                if (readIntLE(body, position) != XXHASH.hash(this.buffer, frameStart, frameSize, 0)) {
+                    throw new IOException("Corrupt LZ4 frame, checksum mismatch");
+                }
+                position += 4;
+            }
+            return position;
+        }
+
+        private byte[] zstd(byte[] body) {
+            if (this.zstdCompress == null) {
+                this.zstdCompress = new ZstdCompressCtx();
+                this.zstdCompress.setLevel(ZSTD_LEVEL);
+            }
+            // the frame records the content size, so consumers allocate the output once
+            return this.zstdCompress.compress(body);
+        }
+
+        private byte[] unzstd(byte[] body, int limit) throws IOException {
+            long size = Zstd.getFrameContentSize(body);
+            if (size == ZSTD_CONTENT_SIZE_UNKNOWN) {
+                // written by a streaming producer, decompressed in chunks up to the limit
+                return this.read(new ZstdInputStream(new ByteArrayInputStream(body)), limit);
+            }
+            if (size < 0) {
+                throw new IOException("Not a zstd body");
+            }
+            if (size > limit) {
+                throw new IOException("Body decompresses to " + size + " bytes, more than " + limit);
+            }
+
+            if (this.zstdDecompress == null) {
+                this.zstdDecompress = new ZstdDecompressCtx();
+            }
+            return this.zstdDecompress.decompress(body, (int) size);
+        }
+
+        private byte[] read(InputStream decompressed, int limit) throws IOException {
+            this.size = 0;
+            try (decompressed) {
+                int read;
+                while ((read = decompressed.read(this.chunk)) >= 0) {
+                    this.append(this.chunk, 0, read, limit);
+                }
+            }
+            return this.result();
+        }
+
+        private void close() {
+            if (this.deflater != null) {
+                this.deflater.end();
+            }
+            if (this.inflater != null) {
+                this.inflater.end();
+            }
+            if (this.zstdCompress != null) {
+                this.zstdCompress.close();
+            }
+            if (this.zstdDecompress != null) {
+                this.zstdDecompress.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.kestra.plugin.jms.serde;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(title = "Compression codec of the message body, written to the `contentEncoding` property")
+public enum CompressionType {
+    NONE(null),
+    GZIP("gzip"),
+    ZSTD("zstd"),
+    LZ4("lz4");
+
+    private final String encoding;
+
+    CompressionType(String encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * The value of the {@code contentEncoding} property of messages compressed with this codec.
+     */
+    public String encoding() {
+        return this.encoding;
+    }
+
+    /**
+     * @return the codec of a {@code contentEncoding} property, or NONE when the body is not compressed with a known codec.
+     */
+    public static CompressionType ofEncoding(String encoding) {
+        if (encoding == null) {
+            return NONE;
+        }
+        for (CompressionType type : values()) {
+            if (encoding.equalsIgnoreCase(type.encoding)) {
+                return type;
+            }
+        }
+        return NONE;
+    }
+}
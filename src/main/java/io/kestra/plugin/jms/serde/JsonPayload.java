@@ -0,0 +1,58 @@
+package io.kestra.plugin.jms.serde;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * A JSON body kept as received, and transcoded token by token into the generator it is serialized with,
+ * e.g. the Ion writer of an output file, without ever building a {@code Map}/{@code List} tree.
+ */
+public final class JsonPayload implements JsonSerializable {
+    private final String text;
+    private final byte[] bytes;
+
+    private JsonPayload(String text, byte[] bytes) {
+        this.text = text;
+        this.bytes = bytes;
+    }
+
+    public static JsonPayload of(String text) {
+        return text != null ? new JsonPayload(text, null) : null;
+    }
+
+    public static JsonPayload of(byte[] bytes) {
+        return bytes != null ? new JsonPayload(null, bytes) : null;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        try (JsonParser parser = this.text != null ?
+            JacksonMapper.ofJson(false).getFactory().createParser(this.text) :
+            JacksonMapper.ofJson(false).getFactory().createParser(this.bytes)) {
+            if (parser.nextToken() == null) {
+                generator.writeNull();
+                return;
+            }
+            generator.copyCurrentStructure(parser);
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer) throws IOException {
+        // the body is plain JSON, there is no type information to add
+        this.serialize(generator, serializers);
+    }
+
+    @Override
+    public String toString() {
+        return this.text != null ? this.text : new String(this.bytes, StandardCharsets.UTF_8);
+    }
+}
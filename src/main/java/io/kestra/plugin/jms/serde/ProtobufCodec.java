@@ -0,0 +1,184 @@
+package io.kestra.plugin.jms.serde;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+
+/**
+ * Protobuf encoding of a message type looked up once in a compiled descriptor set, through {@link DynamicMessage}s.
+ * Messages are exchanged with the flow as maps of their set fields, enums as their names and bytes as byte arrays.
+ */
+final class ProtobufCodec {
+    private final Descriptors.Descriptor descriptor;
+
+    ProtobufCodec(byte[] descriptorSet, String messageType) throws Exception {
+        DescriptorProtos.FileDescriptorSet set = DescriptorProtos.FileDescriptorSet.parseFrom(descriptorSet);
+
+        Map<String, DescriptorProtos.FileDescriptorProto> protos = new HashMap<>();
+        set.getFileList().forEach(proto -> protos.put(proto.getName(), proto));
+
+        Map<String, Descriptors.FileDescriptor> files = new HashMap<>();
+        Descriptors.Descriptor found = null;
+        for (DescriptorProtos.FileDescriptorProto proto : set.getFileList()) {
+            Descriptors.FileDescriptor file = build(proto.getName(), protos, files);
+            for (Descriptors.Descriptor type : file.getMessageTypes()) {
+                found = found != null ? found : find(type, messageType);
+            }
+        }
+
+        if (found == null) {
+            throw new IllegalArgumentException("Protobuf message type '" + messageType + "' not found in the descriptor set");
+        }
+        this.descriptor = found;
+    }
+
+    private static Descriptors.FileDescriptor build(String name, Map<String, DescriptorProtos.FileDescriptorProto> protos, Map<String, Descriptors.FileDescriptor> files) throws Descriptors.DescriptorValidationException {
+        Descriptors.FileDescriptor file = files.get(name);
+        if (file != null) {
+            return file;
+        }
+
+        DescriptorProtos.FileDescriptorProto proto = protos.get(name);
+        if (proto == null) {
+            throw new IllegalArgumentException("Protobuf descriptor set is missing '" + name + "', generate it with `protoc --include_imports`");
+        }
+
+        Descriptors.FileDescriptor[] dependencies = new Descriptors.FileDescriptor[proto.getDependencyCount()];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencies[i] = build(proto.getDependency(i), protos, files);
+        }
+
+        file = Descriptors.FileDescriptor.buildFrom(proto, dependencies);
+        files.put(name, file);
+        return file;
+    }
+
+    private static Descriptors.Descriptor find(Descriptors.Descriptor type, String messageType) {
+        if (type.getFullName().equals(messageType)) {
+            return type;
+        }
+        for (Descriptors.Descriptor nested : type.getNestedTypes()) {
+            Descriptors.Descriptor found = find(nested, messageType);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    Object decode(byte[] message) throws InvalidProtocolBufferException {
+        return toMap(DynamicMessage.parseFrom(this.descriptor, message));
+    }
+
+    byte[] encode(Object data) {
+        if (!(data instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("For PROTOBUF SerdeType, the provided message body must be a map.");
+        }
+        return toMessage(map, this.descriptor).toByteArray();
+    }
+
+    private static Map<String, Object> toMap(Message message) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Map.Entry<Descriptors.FieldDescriptor, Object> entry : message.getAllFields().entrySet()) {
+            Descriptors.FieldDescriptor field = entry.getKey();
+
+            if (field.isMapField()) {
+                Descriptors.FieldDescriptor keyField = field.getMessageType().findFieldByNumber(1);
+                Descriptors.FieldDescriptor valueField = field.getMessageType().findFieldByNumber(2);
+
+                Map<String, Object> entries = new LinkedHashMap<>();
+                for (Object item : (List<?>) entry.getValue()) {
+                    Message mapEntry = (Message) item;
+                    entries.put(String.valueOf(toValue(keyField, mapEntry.getField(keyField))), toValue(valueField, mapEntry.getField(valueField)));
+                }
+                map.put(field.getName(), entries);
+            } else if (field.isRepeated()) {
+                map.put(field.getName(), ((List<?>) entry.getValue()).stream().map(item -> toValue(field, item)).toList());
+            } else {
+                map.put(field.getName(), toValue(field, entry.getValue()));
+            }
+        }
+        return map;
+    }
+
+    private static Object toValue(Descriptors.FieldDescriptor field, Object value) {
+        return switch (field.getJavaType()) {
+            case MESSAGE -> toMap((Message) value);
+            case ENUM -> ((Descriptors.EnumValueDescriptor) value).getName();
+            case BYTE_STRING -> ((ByteString) value).toByteArray();
+            default -> value;
+        };
+    }
+
+    private static DynamicMessage toMessage(Map<?, ?> map, Descriptors.Descriptor descriptor) {
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(descriptor);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Descriptors.FieldDescriptor field = descriptor.findFieldByName(entry.getKey().toString());
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field '" + entry.getKey() + "' for Protobuf message " + descriptor.getFullName());
+            }
+            if (entry.getValue() == null) {
+                continue;
+            }
+
+            if (field.isMapField()) {
+                Descriptors.Descriptor entryType = field.getMessageType();
+                Descriptors.FieldDescriptor keyField = entryType.findFieldByNumber(1);
+                Descriptors.FieldDescriptor valueField = entryType.findFieldByNumber(2);
+
+                for (Map.Entry<?, ?> item : ((Map<?, ?>) entry.getValue()).entrySet()) {
+                    builder.addRepeatedField(field, DynamicMessage.newBuilder(entryType)
+                        .setField(keyField, toField(keyField, item.getKey()))
+                        .setField(valueField, toField(valueField, item.getValue()))
+                        .build());
+                }
+            } else if (field.isRepeated()) {
+                for (Object item : (List<?>) entry.getValue()) {
+                    builder.addRepeatedField(field, toField(field, item));
+                }
+            } else {
+                builder.setField(field, toField(field, entry.getValue()));
+            }
+        }
+        return builder.build();
+    }
+
+    private static Object toField(Descriptors.FieldDescriptor field, Object value) {
+        return switch (field.getJavaType()) {
+            case INT -> number(value).intValue();
+            case LONG -> number(value).longValue();
+            case FLOAT -> number(value).floatValue();
+            case DOUBLE -> number(value).doubleValue();
+            case BOOLEAN -> value instanceof Boolean bool ? bool : Boolean.parseBoolean(value.toString());
+            case STRING -> value.toString();
+            case BYTE_STRING -> ByteString.copyFrom(value instanceof byte[] bytes ? bytes : value.toString().getBytes(StandardCharsets.UTF_8));
+            case ENUM -> {
+                Descriptors.EnumValueDescriptor enumValue = value instanceof Number number
+                    ? field.getEnumType().findValueByNumber(number.intValue())
+                    : field.getEnumType().findValueByName(value.toString());
+                if (enumValue == null) {
+                    throw new IllegalArgumentException("Unknown value '" + value + "' for Protobuf enum " + field.getEnumType().getFullName());
+                }
+                yield enumValue;
+            }
+            case MESSAGE -> toMessage((Map<?, ?>) value, field.getMessageType());
+        };
+    }
+
+    /**
+     * Map keys, and values rendered from templates, may come as strings.
+     */
+    private static Number number(Object value) {
+        return value instanceof Number number ? number : new BigDecimal(value.toString());
+    }
+}
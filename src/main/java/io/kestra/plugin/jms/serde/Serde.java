@@ -0,0 +1,100 @@
+package io.kestra.plugin.jms.serde;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+
+/**
+ * The serializer / deserializer of a run: a {@link SerdeType} with its schema compiled once,
+ * then reused for every message of the run.
+ */
+public final class Serde {
+    private final SerdeType type;
+    private final AvroCodec avro;
+    private final ProtobufCodec protobuf;
+
+    private Serde(SerdeType type, AvroCodec avro, ProtobufCodec protobuf) {
+        this.type = type;
+        this.avro = avro;
+        this.protobuf = protobuf;
+    }
+
+    /**
+     * Creates the serde of a format that doesn't need a schema.
+     */
+    public static Serde of(SerdeType type) {
+        if (type == SerdeType.AVRO || type == SerdeType.PROTOBUF) {
+            throw new IllegalArgumentException(type + " needs a `schema`");
+        }
+        return new Serde(type, null, null);
+    }
+
+    /**
+     * Creates the serde of the format, loading and compiling its schema when it needs one.
+     *
+     * @param schema An Avro schema, inline or as a {@code kestra://} or {@code nsfile://} URI, or the URI of a Protobuf
+     *               descriptor set generated with {@code protoc --include_imports --descriptor_set_out}.
+     * @param messageType The fully-qualified name of the Protobuf message in the descriptor set.
+     */
+    public static Serde of(RunContext runContext, SerdeType type, Property<String> schema, Property<String> messageType) throws Exception {
+        return switch (type) {
+            case AVRO -> new Serde(type, new AvroCodec(new String(readSchema(runContext, type, schema), StandardCharsets.UTF_8)), null);
+            case PROTOBUF -> {
+                String rMessageType = runContext.render(messageType).as(String.class)
+                    .orElseThrow(() -> new IllegalArgumentException("`messageType` is required for PROTOBUF"));
+                yield new Serde(type, null, new ProtobufCodec(readSchema(runContext, type, schema), rMessageType));
+            }
+            default -> of(type);
+        };
+    }
+
+    private static byte[] readSchema(RunContext runContext, SerdeType type, Property<String> schema) throws Exception {
+        String rSchema = runContext.render(schema).as(String.class)
+            .orElseThrow(() -> new IllegalArgumentException("`schema` is required for " + type));
+
+        if (rSchema.startsWith("kestra://") || rSchema.startsWith("nsfile://")) {
+            try (InputStream inputStream = runContext.storage().getFile(URI.create(rSchema))) {
+                return inputStream.readAllBytes();
+            }
+        }
+
+        // an inline schema, only meaningful for the JSON definition of an Avro schema
+        return rSchema.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public SerdeType type() {
+        return this.type;
+    }
+
+    public Object deserialize(byte[] message) throws IOException {
+        if (message == null) {
+            return null;
+        }
+
+        return switch (this.type) {
+            case AVRO -> this.avro.decode(message);
+            case PROTOBUF -> this.protobuf.decode(message);
+            default -> this.type.deserialize(message);
+        };
+    }
+
+    public Object deserialize(String text) throws IOException {
+        return this.type.deserialize(text);
+    }
+
+    public byte[] serialize(Object data) throws IOException {
+        if (data == null) {
+            return null;
+        }
+
+        return switch (this.type) {
+            case AVRO -> this.avro.encode(data);
+            case PROTOBUF -> this.protobuf.encode(data);
+            default -> this.type.serialize(data);
+        };
+    }
+}
@@ -3,6 +3,10 @@ package io.kestra.plugin.jms.serde;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
 import io.kestra.core.serializers.JacksonMapper;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -11,7 +15,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 public enum SerdeType {
     STRING,
     JSON,
-    BYTES;
+    BYTES,
+    MSGPACK,
+    CBOR,
+    AVRO,
+    PROTOBUF;
 
     /**
      * Deserializes a byte array into an object based on the enum type.
@@ -29,6 +37,29 @@ public enum SerdeType {
             case JSON -> JacksonMapper.ofJson(false).readValue(message, Object.class);
             case STRING -> new String(message, StandardCharsets.UTF_8);
             case BYTES -> message;
+            case MSGPACK -> Mappers.MSGPACK.readValue(message, Object.class);
+            case CBOR -> Mappers.CBOR.readValue(message, Object.class);
+            case AVRO, PROTOBUF -> throw this.schemaRequired();
+        };
+    }
+
+    /**
+     * Deserializes the text of a TextMessage into an object based on the enum type, without encoding it to bytes first.
+     *
+     * @param text The text of the JMS message.
+     * @return The deserialized object.
+     * @throws IOException If JSON parsing fails.
+     */
+    public Object deserialize(String text) throws IOException {
+        if (text == null) {
+            return null;
+        }
+
+        return switch (this) {
+            case JSON -> JacksonMapper.ofJson(false).readValue(text, Object.class);
+            case STRING -> text;
+            case BYTES -> text.getBytes(StandardCharsets.UTF_8);
+            case MSGPACK, CBOR, AVRO, PROTOBUF -> throw new IllegalArgumentException(this + " bodies are binary and must be received as a BytesMessage");
         };
     }
 
@@ -53,6 +84,28 @@ public enum SerdeType {
                 }
                 yield (byte[]) data;
             }
+            case MSGPACK -> Mappers.MSGPACK.writeValueAsBytes(data);
+            case CBOR -> Mappers.CBOR.writeValueAsBytes(data);
+            case AVRO, PROTOBUF -> throw this.schemaRequired();
         };
     }
+
+    /**
+     * Whether bodies of this format are sent as a BytesMessage rather than a TextMessage.
+     */
+    public boolean isBinary() {
+        return this != STRING && this != JSON;
+    }
+
+    private IllegalStateException schemaRequired() {
+        return new IllegalStateException(this + " needs a schema, use a Serde compiled for the run");
+    }
+
+    /**
+     * Binary formats share a mapper each, they are thread-safe once configured.
+     */
+    private static final class Mappers {
+        private static final ObjectMapper MSGPACK = new ObjectMapper(new MessagePackFactory()).findAndRegisterModules();
+        private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+    }
 }
@@ -0,0 +1,93 @@
+package io.kestra.plugin.jms;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.Trigger;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+import io.kestra.plugin.jms.serde.SerdeType;
+
+import at.conapi.oss.jms.adapter.AbstractDestination;
+import jakarta.inject.Inject;
+import jakarta.jms.*;
+import reactor.core.publisher.Flux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class BatchRealtimeTriggerTest extends AbstractJMSTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void emitOneExecutionPerBatch() throws Exception {
+        // Create test queue and send a full batch of messages
+        createTestQueue();
+        for (int i = 0; i < 5; i++) {
+            sendTestMessage(TEST_QUEUE_NAME, "Message " + i);
+        }
+
+        BatchRealtimeTrigger trigger = BatchRealtimeTrigger.builder()
+            .id(IdUtils.create())
+            .type(BatchRealtimeTrigger.class.getName())
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .maxRecords(Property.ofValue(5))
+            .maxDuration(Property.ofValue(Duration.ofSeconds(10)))
+            .build();
+
+        Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        Execution execution = Flux.from(trigger.evaluate(context.getKey(), context.getValue()))
+            .blockFirst(Duration.ofSeconds(30));
+
+        assertThat(execution, notNullValue());
+        assertThat(execution.getTrigger().getVariables().get("count"), is(5));
+        assertThat(execution.getTrigger().getVariables().get("uri"), notNullValue());
+    }
+
+    /**
+     * Helper method to send a test message to a queue.
+     */
+    private void sendTestMessage(String queueName, String messageText) throws Exception {
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+        ) {
+
+            Queue queue = session.createQueue(queueName);
+            MessageProducer producer = session.createProducer(queue);
+
+            TextMessage message = session.createTextMessage(messageText);
+            producer.send(message);
+        }
+    }
+}
@@ -13,6 +13,8 @@ import io.kestra.core.runners.RunContextFactory;
 import io.kestra.core.serializers.FileSerde;
 import io.kestra.core.utils.IdUtils;
 import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+import io.kestra.plugin.jms.configuration.DeduplicationConfig;
+import io.kestra.plugin.jms.serde.CompressionType;
 import io.kestra.plugin.jms.serde.SerdeType;
 
 import at.conapi.oss.jms.adapter.AbstractDestination;
@@ -21,6 +23,7 @@ import jakarta.jms.*;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @KestraTest
 class ConsumeTest extends AbstractJMSTest {
@@ -210,6 +213,682 @@ class ConsumeTest extends AbstractJMSTest {
         assertThat(output.getCount(), is(0));
     }
 
+    @Test
+    void consumeWithBatchedAcknowledgement() throws Exception {
+        // Create test queue and send multiple messages
+        createTestQueue();
+        sendTestMessage(TEST_QUEUE_NAME, "Message 1");
+        sendTestMessage(TEST_QUEUE_NAME, "Message 2");
+        sendTestMessage(TEST_QUEUE_NAME, "Message 3");
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Consume task = Consume.builder()
+            .id("consume-test-ack-batch")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .maxMessages(Property.ofValue(3))
+            .maxWaitTimeout(Property.ofValue(5000L))
+            .ackBatchSize(Property.ofValue(2))
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .build();
+
+        Consume.Output output = task.run(runContext);
+        assertThat(output.getCount(), is(3));
+
+        // Every message was acknowledged, including the last partial batch: nothing is redelivered
+        Consume drain = Consume.builder()
+            .id("consume-test-ack-batch-drain")
+            .connectionFactoryConfig(task.getConnectionFactoryConfig())
+            .destination(task.getDestination())
+            .maxMessages(Property.ofValue(3))
+            .maxWaitTimeout(Property.ofValue(1000L))
+            .ackAfterUpload(Property.ofValue(true))
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .build();
+        Consume.Output again = drain.run(runContextFactory.of(Map.of("testId", IdUtils.create())));
+        assertThat(again.getCount(), is(0));
+    }
+
+    @Test
+    void consumeWithTransactedSession() throws Exception {
+        // Create test queue and send multiple messages
+        createTestQueue();
+        sendTestMessage(TEST_QUEUE_NAME, "Message 1");
+        sendTestMessage(TEST_QUEUE_NAME, "Message 2");
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Consume task = Consume.builder()
+            .id("consume-test-transacted")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .maxMessages(Property.ofValue(10))
+            .maxWaitTimeout(Property.ofValue(2000L))
+            .transacted(Property.ofValue(true))
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .build();
+
+        Consume.Output output = task.run(runContext);
+        assertThat(output.getCount(), is(2));
+
+        List<JMSMessage> messages = readMessagesFromStorage(runContext, output.getUri());
+        assertThat(messages.get(0).getData(), is("Message 1"));
+        assertThat(messages.get(1).getData(), is("Message 2"));
+
+        // The transaction was committed after the upload: nothing is redelivered
+        Consume.Output again = task.run(runContextFactory.of(Map.of("testId", IdUtils.create())));
+        assertThat(again.getCount(), is(0));
+    }
+
+    @Test
+    void consumeWithTransactedSessionRejectsConcurrency() {
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Consume task = Consume.builder()
+            .id("consume-test-transacted-concurrency")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .maxMessages(Property.ofValue(10))
+            .maxWaitTimeout(Property.ofValue(1000L))
+            .transacted(Property.ofValue(true))
+            .concurrency(Property.ofValue(2))
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .build();
+
+        // Separate sessions can't be committed atomically
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> task.run(runContext));
+        assertThat(exception.getMessage(), containsString("transacted"));
+    }
+
+    @Test
+    void consumeWithConcurrentConsumers() throws Exception {
+        // Create test queue and send more messages than will be consumed
+        createTestQueue();
+        for (int i = 0; i < 20; i++) {
+            sendTestMessage(TEST_QUEUE_NAME, "Message " + i);
+        }
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Consume task = Consume.builder()
+            .id("consume-test-concurrent")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .maxMessages(Property.ofValue(15))
+            .maxWaitTimeout(Property.ofValue(2000L))
+            .concurrency(Property.ofValue(4))
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .build();
+
+        Consume.Output output = task.run(runContext);
+        assertThat(output.getCount(), is(15));
+
+        List<JMSMessage> messages = readMessagesFromStorage(runContext, output.getUri());
+        assertThat(messages.stream().map(JMSMessage::getData).distinct().count(), is(15L));
+
+        // The remaining messages are left on the queue
+        Consume.Output rest = task.run(runContextFactory.of(Map.of("testId", IdUtils.create())));
+        assertThat(rest.getCount(), is(5));
+    }
+
+    @Test
+    void consumePipelinedInOrder() throws Exception {
+        // Create test queue and send multiple messages
+        createTestQueue();
+        for (int i = 0; i < 10; i++) {
+            sendTestMessage(TEST_QUEUE_NAME, "{\"index\": " + i + "}");
+        }
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Consume task = Consume.builder()
+            .id("consume-test-pipelined")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .maxMessages(Property.ofValue(10))
+            .maxWaitTimeout(Property.ofValue(2000L))
+            .pipelined(Property.ofValue(true))
+            .serdeType(Property.ofValue(SerdeType.JSON))
+            .build();
+
+        Consume.Output output = task.run(runContext);
+        assertThat(output.getCount(), is(10));
+
+        List<JMSMessage> messages = readMessagesFromStorage(runContext, output.getUri());
+        for (int i = 0; i < 10; i++) {
+            assertThat(((Map<?, ?>) messages.get(i).getData()).get("index"), is(i));
+        }
+    }
+
+    @Test
+    void consumeUntilIdle() throws Exception {
+        // Create test queue and send fewer messages than the maximum
+        createTestQueue();
+        sendTestMessage(TEST_QUEUE_NAME, "Message 1");
+        sendTestMessage(TEST_QUEUE_NAME, "Message 2");
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Consume task = Consume.builder()
+            .id("consume-test-idle")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .maxMessages(Property.ofValue(10))
+            .idleTimeout(Property.ofValue(500L))
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .build();
+
+        // Without a max wait, the drain stops once the queue has been empty for the idle timeout
+        long start = System.currentTimeMillis();
+        Consume.Output output = task.run(runContext);
+
+        assertThat(output.getCount(), is(2));
+        assertThat(System.currentTimeMillis() - start, lessThan(10_000L));
+    }
+
+    @Test
+    void consumeFromSharedDurableSubscription() throws Exception {
+        createTestTopic();
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Consume task = Consume.builder()
+            .id("consume-test-subscription")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_TOPIC_NAME)
+                    .destinationType(AbstractDestination.DestinationType.TOPIC)
+                    .subscriptionName("kestra-" + IdUtils.create())
+                    .durable(true)
+                    .shared(true)
+                    .build()
+            )
+            .maxMessages(Property.ofValue(3))
+            .maxWaitTimeout(Property.ofValue(1000L))
+            .concurrency(Property.ofValue(2))
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .build();
+
+        // The first run creates the subscription
+        assertThat(task.run(runContext).getCount(), is(0));
+
+        // Messages published while no consumer is connected are kept for the subscription
+        for (int i = 0; i < 3; i++) {
+            sendTestTopicMessage(TEST_TOPIC_NAME, "Message " + i);
+        }
+
+        Consume.Output output = task.run(runContext);
+        assertThat(output.getCount(), is(3));
+    }
+
+    @Test
+    void consumeFromUnsharedDurableSubscription() throws Exception {
+        createTestTopic();
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+        String subscriptionName = "kestra-" + IdUtils.create();
+
+        Consume.ConsumeBuilder<?, ?> builder = Consume.builder()
+            .id("consume-test-unshared-subscription")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .maxMessages(Property.ofValue(3))
+            .maxWaitTimeout(Property.ofValue(1000L))
+            .serdeType(Property.ofValue(SerdeType.STRING));
+
+        // Without a client ID, the subscription can't be identified
+        Consume withoutClientId = builder
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_TOPIC_NAME)
+                    .destinationType(AbstractDestination.DestinationType.TOPIC)
+                    .subscriptionName(subscriptionName)
+                    .durable(true)
+                    .build()
+            )
+            .build();
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> withoutClientId.run(runContext));
+        assertThat(exception.getMessage(), containsString("clientId"));
+
+        Consume task = builder
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_TOPIC_NAME)
+                    .destinationType(AbstractDestination.DestinationType.TOPIC)
+                    .subscriptionName(subscriptionName)
+                    .durable(true)
+                    .clientId("kestra-" + IdUtils.create())
+                    .build()
+            )
+            .build();
+
+        // The first run creates the subscription
+        assertThat(task.run(runContext).getCount(), is(0));
+
+        // Messages published while no consumer is connected are kept for the subscription of the client ID
+        for (int i = 0; i < 3; i++) {
+            sendTestTopicMessage(TEST_TOPIC_NAME, "Message " + i);
+        }
+
+        Consume.Output output = task.run(runContext);
+        assertThat(output.getCount(), is(3));
+    }
+
+    @Test
+    void consumeDroppingDuplicateRedelivery() throws Exception {
+        createTestQueue();
+        sendTestMessageWithProperty(TEST_QUEUE_NAME, "Order", "orderId", 42);
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Consume task = Consume.builder()
+            .id("consume-test-dedup-" + IdUtils.create())
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .deduplication(DeduplicationConfig.builder().key(Property.ofValue("orderId")).build())
+            .maxMessages(Property.ofValue(1))
+            .maxWaitTimeout(Property.ofValue(1000L))
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .build();
+
+        assertThat(task.run(runContext).getCount(), is(1));
+
+        // The same order comes back flagged as redelivered
+        sendTestMessageWithProperty(TEST_QUEUE_NAME, "Order", "orderId", 42);
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(true, Session.SESSION_TRANSACTED)
+        ) {
+            connection.start();
+            MessageConsumer consumer = session.createConsumer(session.createQueue(TEST_QUEUE_NAME));
+            assertThat(consumer.receive(5000), notNullValue());
+            session.rollback();
+        }
+
+        // It is acknowledged but not stored again
+        assertThat(task.run(runContext).getCount(), is(0));
+    }
+
+    @Test
+    void consumeReportingLatency() throws Exception {
+        createTestQueue();
+        sendTestMessage(TEST_QUEUE_NAME, "Message 1");
+        sendTestMessage(TEST_QUEUE_NAME, "Message 2");
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Consume task = Consume.builder()
+            .id("consume-test-metrics")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .maxMessages(Property.ofValue(2))
+            .maxWaitTimeout(Property.ofValue(5000L))
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .build();
+
+        assertThat(task.run(runContext).getCount(), is(2));
+
+        // Artemis sets the JMSTimestamp, so both messages land in a latency bucket
+        List<String> metrics = runContext.metrics().stream().map(metric -> metric.getName()).toList();
+        assertThat(metrics, hasItems("messages.received", "acknowledgements", "stage.acknowledge", "latency", "latency.max"));
+    }
+
+    @Test
+    void consumeWithHeaderProjection() throws Exception {
+        createTestQueue();
+        sendTestMessageWithProperty(TEST_QUEUE_NAME, "Order", "orderId", 42);
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Consume task = Consume.builder()
+            .id("consume-test-projection")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .includeHeaders(Property.ofValue(List.of("orderId", "missing")))
+            .excludeFields(Property.ofValue(List.of("replyTo", "expiration", "contentEncoding")))
+            .maxMessages(Property.ofValue(1))
+            .maxWaitTimeout(Property.ofValue(5000L))
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .build();
+
+        Consume.Output output = task.run(runContext);
+        assertThat(output.getCount(), is(1));
+
+        // Provider properties such as Artemis' own are not extracted
+        List<JMSMessage> messages = readMessagesFromStorage(runContext, output.getUri());
+        assertThat(messages.getFirst().getHeaders(), is(Map.of("orderId", 42)));
+        assertThat(messages.getFirst().getData(), is("Order"));
+    }
+
+    @Test
+    void consumeCompressedMessages() throws Exception {
+        createTestQueue();
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+        ConnectionFactoryConfig connectionFactoryConfig = ConnectionFactoryConfig.Direct.builder()
+            .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+            .connectionProperties(
+                Map.of(
+                    "brokerURL", ACTIVEMQ_URL,
+                    "user", ACTIVEMQ_USER,
+                    "password", ACTIVEMQ_PASSWORD
+                )
+            )
+            .build();
+        JMSDestination destination = JMSDestination.builder()
+            .destinationName(TEST_QUEUE_NAME)
+            .destinationType(AbstractDestination.DestinationType.QUEUE)
+            .build();
+
+        // One body above the minimum size, compressed, and one below it, sent as is
+        List<Map<String, Object>> items = java.util.stream.IntStream.range(0, 200)
+            .<Map<String, Object>>mapToObj(i -> Map.of("id", i, "name", "Item " + i))
+            .toList();
+        Produce.builder()
+            .id("produce-test-compressed")
+            .connectionFactoryConfig(connectionFactoryConfig)
+            .destination(destination)
+            .from(List.of(Map.of("data", items), Map.of("data", Map.of("id", 1))))
+            .serdeType(SerdeType.JSON)
+            .compression(Property.ofValue(CompressionType.ZSTD))
+            .build()
+            .run(runContext);
+
+        Consume task = Consume.builder()
+            .id("consume-test-compressed")
+            .connectionFactoryConfig(connectionFactoryConfig)
+            .destination(destination)
+            .maxMessages(Property.ofValue(2))
+            .maxWaitTimeout(Property.ofValue(5000L))
+            .serdeType(Property.ofValue(SerdeType.JSON))
+            .build();
+
+        Consume.Output output = task.run(runContext);
+        assertThat(output.getCount(), is(2));
+
+        List<JMSMessage> messages = readMessagesFromStorage(runContext, output.getUri());
+        assertThat(messages.get(0).getContentEncoding(), is("zstd"));
+        assertThat(messages.get(0).getData(), is(items));
+        assertThat(messages.get(1).getContentEncoding(), nullValue());
+        assertThat(messages.get(1).getData(), is(Map.of("id", 1)));
+    }
+
+    @Test
+    void consumeCompressedMessagesWithoutHeaders() throws Exception {
+        createTestQueue();
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+        ConnectionFactoryConfig connectionFactoryConfig = ConnectionFactoryConfig.Direct.builder()
+            .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+            .connectionProperties(
+                Map.of(
+                    "brokerURL", ACTIVEMQ_URL,
+                    "user", ACTIVEMQ_USER,
+                    "password", ACTIVEMQ_PASSWORD
+                )
+            )
+            .build();
+        JMSDestination destination = JMSDestination.builder()
+            .destinationName(TEST_QUEUE_NAME)
+            .destinationType(AbstractDestination.DestinationType.QUEUE)
+            .build();
+
+        List<Map<String, Object>> items = java.util.stream.IntStream.range(0, 200)
+            .<Map<String, Object>>mapToObj(i -> Map.of("id", i, "name", "Item " + i))
+            .toList();
+        Produce.builder()
+            .id("produce-test-compressed-no-headers")
+            .connectionFactoryConfig(connectionFactoryConfig)
+            .destination(destination)
+            .from(Map.of("data", items))
+            .serdeType(SerdeType.JSON)
+            .compression(Property.ofValue(CompressionType.GZIP))
+            .build()
+            .run(runContext);
+
+        // The content encoding is neither extracted as a header nor as a field, the body must still be decoded
+        Consume task = Consume.builder()
+            .id("consume-test-compressed-no-headers")
+            .connectionFactoryConfig(connectionFactoryConfig)
+            .destination(destination)
+            .maxMessages(Property.ofValue(1))
+            .maxWaitTimeout(Property.ofValue(5000L))
+            .serdeType(Property.ofValue(SerdeType.JSON))
+            .includeHeaders(Property.ofValue(List.of()))
+            .excludeFields(Property.ofValue(List.of("contentEncoding")))
+            .build();
+
+        Consume.Output output = task.run(runContext);
+        assertThat(output.getCount(), is(1));
+
+        List<JMSMessage> messages = readMessagesFromStorage(runContext, output.getUri());
+        assertThat(messages.getFirst().getHeaders(), is(Map.of()));
+        assertThat(messages.getFirst().getContentEncoding(), nullValue());
+        assertThat(messages.getFirst().getData(), is(items));
+    }
+
+    @Test
+    void consumeLargeMessageToStorage() throws Exception {
+        createTestQueue();
+
+        byte[] body = new byte[256 * 1024];
+        new java.util.Random(42).nextBytes(body);
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+        ) {
+            BytesMessage message = session.createBytesMessage();
+            message.writeBytes(body);
+            session.createProducer(session.createQueue(TEST_QUEUE_NAME)).send(message);
+        }
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Consume task = Consume.builder()
+            .id("consume-test-large")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .largeMessageThreshold(Property.ofValue(64 * 1024L))
+            .maxMessages(Property.ofValue(1))
+            .maxWaitTimeout(Property.ofValue(5000L))
+            .serdeType(Property.ofValue(SerdeType.BYTES))
+            .build();
+
+        Consume.Output output = task.run(runContext);
+        assertThat(output.getCount(), is(1));
+
+        // The body is stored in its own file, the message only carries its URI
+        List<JMSMessage> messages = readMessagesFromStorage(runContext, output.getUri());
+        Object data = messages.getFirst().getData();
+        assertThat(data, instanceOf(String.class));
+        try (java.io.InputStream stored = runContext.storage().getFile(java.net.URI.create((String) data))) {
+            assertThat(stored.readAllBytes(), is(body));
+        }
+    }
+
     /**
      * Helper method to send a test message to a queue.
      */
@@ -227,6 +906,23 @@ class ConsumeTest extends AbstractJMSTest {
         }
     }
 
+    /**
+     * Helper method to send a test message to a topic.
+     */
+    private void sendTestTopicMessage(String topicName, String messageText) throws Exception {
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+        ) {
+
+            Topic topic = session.createTopic(topicName);
+            MessageProducer producer = session.createProducer(topic);
+
+            TextMessage message = session.createTextMessage(messageText);
+            producer.send(message);
+        }
+    }
+
     /**
      * Helper method to send a test message with a custom property.
      */
@@ -0,0 +1,63 @@
+package io.kestra.plugin.jms;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+
+import at.conapi.oss.jms.adapter.impl.ConnectionFactoryAdapter;
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class JMSConnectionFactoryTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void reuseCachedFactoryForSameRenderedConfig() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("brokerUrl", "tcp://localhost:61616"));
+        String clientId = IdUtils.create();
+
+        ConnectionFactoryAdapter first = new JMSConnectionFactory().create(runContext, config(clientId, Duration.ofMinutes(10)));
+        ConnectionFactoryAdapter second = new JMSConnectionFactory().create(runContext, config(clientId, Duration.ofMinutes(10)));
+        ConnectionFactoryAdapter other = new JMSConnectionFactory().create(runContext, config(IdUtils.create(), Duration.ofMinutes(10)));
+
+        assertThat(second, sameInstance(first));
+        assertThat(other, not(sameInstance(first)));
+    }
+
+    @Test
+    void buildNewFactoryWhenCacheDisabled() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("brokerUrl", "tcp://localhost:61616"));
+        String clientId = IdUtils.create();
+
+        ConnectionFactoryAdapter first = new JMSConnectionFactory().create(runContext, config(clientId, Duration.ZERO));
+        ConnectionFactoryAdapter second = new JMSConnectionFactory().create(runContext, config(clientId, Duration.ZERO));
+
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    private static ConnectionFactoryConfig config(String clientId, Duration cacheIdleTimeout) {
+        return ConnectionFactoryConfig.Direct.builder()
+            .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+            .connectionProperties(
+                Map.of(
+                    "brokerURL", "{{ brokerUrl }}",
+                    "clientID", clientId
+                )
+            )
+            .cacheIdleTimeout(Property.ofValue(cacheIdleTimeout))
+            .build();
+    }
+}
@@ -1,14 +1,17 @@
 package io.kestra.plugin.jms;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
+import com.google.protobuf.DescriptorProtos;
 import org.junit.jupiter.api.Test;
 
 import io.kestra.core.junit.annotations.KestraTest;
@@ -19,6 +22,8 @@ import io.kestra.core.serializers.FileSerde;
 import io.kestra.core.storages.StorageInterface;
 import io.kestra.core.utils.IdUtils;
 import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+import io.kestra.plugin.jms.configuration.ConnectionPoolConfig;
+import io.kestra.plugin.jms.serde.Serde;
 import io.kestra.plugin.jms.serde.SerdeType;
 
 import at.conapi.oss.jms.adapter.AbstractDestination;
@@ -29,6 +34,8 @@ import reactor.core.publisher.Flux;
 import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 @KestraTest
 class ProduceTest extends AbstractJMSTest {
@@ -514,4 +521,453 @@ class ProduceTest extends AbstractJMSTest {
             }
         }
     }
+
+    @Test
+    void produceWithConnectionPool() throws Exception {
+        // Create test queue
+        createTestQueue();
+
+        Produce task = Produce.builder()
+            .id("produce-test-pool")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .connectionPool(ConnectionPoolConfig.builder().maxConnections(Property.ofValue(1)).build())
+            .from("{{ message }}")
+            .serdeType(SerdeType.STRING)
+            .build();
+
+        // Run twice so the second run borrows the pooled session of the first one
+        for (int i = 1; i <= 2; i++) {
+            RunContext runContext = runContextFactory.of(Map.of("message", "Pooled message " + i));
+            Produce.Output output = task.run(runContext);
+            assertThat(output.getMessagesCount(), is(1));
+        }
+
+        // Verify all messages were sent
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+        ) {
+
+            connection.start();
+            MessageConsumer consumer = session.createConsumer(session.createQueue(TEST_QUEUE_NAME));
+
+            for (int i = 1; i <= 2; i++) {
+                Message message = consumer.receive(5000);
+                assertThat(message, notNullValue());
+                assertThat(((TextMessage) message).getText(), is("Pooled message " + i));
+            }
+        }
+    }
+
+    @Test
+    void producePerMessageDeliverySettings() throws Exception {
+        // Create test queue
+        createTestQueue();
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Produce task = Produce.builder()
+            .id("produce-test-overrides")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .from(
+                List.of(
+                    Map.of("data", "Default settings"),
+                    Map.of("data", "Overridden settings", "priority", 9, "correlationId", "order-42")
+                )
+            )
+            .priority(Property.ofValue(3))
+            .serdeType(SerdeType.STRING)
+            .build();
+
+        Produce.Output output = task.run(runContext);
+        assertThat(output.getMessagesCount(), is(2));
+
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+        ) {
+
+            connection.start();
+            MessageConsumer consumer = session.createConsumer(session.createQueue(TEST_QUEUE_NAME));
+
+            Message first = consumer.receive(5000);
+            assertThat(first, notNullValue());
+            assertThat(first.getJMSPriority(), is(3));
+
+            Message second = consumer.receive(5000);
+            assertThat(second, notNullValue());
+            assertThat(second.getJMSPriority(), is(9));
+            assertThat(second.getJMSCorrelationID(), is("order-42"));
+        }
+    }
+
+    @Test
+    void produceInTransactedBatches() throws Exception {
+        // Create test queue
+        createTestQueue();
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Produce task = Produce.builder()
+            .id("produce-test-batch")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .from(
+                List.of(
+                    Map.of("data", "Message 1"),
+                    Map.of("data", "Message 2"),
+                    Map.of("data", "Message 3"),
+                    Map.of("data", "Message 4"),
+                    Map.of("data", "Message 5")
+                )
+            )
+            .batchSize(Property.ofValue(2))
+            .serdeType(SerdeType.STRING)
+            .build();
+
+        Produce.Output output = task.run(runContext);
+
+        // 2 full batches and the remaining message committed at the end
+        assertThat(output.getMessagesCount(), is(5));
+        assertThat(output.getBatchesCommitted(), is(3));
+
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+        ) {
+
+            connection.start();
+            MessageConsumer consumer = session.createConsumer(session.createQueue(TEST_QUEUE_NAME));
+
+            for (int i = 1; i <= 5; i++) {
+                Message message = consumer.receive(5000);
+                assertThat(message, notNullValue());
+                assertThat(((TextMessage) message).getText(), is("Message " + i));
+            }
+        }
+    }
+
+    @Test
+    void produceAsynchronously() throws Exception {
+        // Create test queue
+        createTestQueue();
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        List<Map<String, Object>> from = java.util.stream.IntStream.rangeClosed(1, 20)
+            .<Map<String, Object>>mapToObj(i -> Map.of("data", "Message " + i))
+            .toList();
+
+        Produce task = Produce.builder()
+            .id("produce-test-async")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .from(from)
+            .async(Property.ofValue(true))
+            .maxInFlight(Property.ofValue(4))
+            .serdeType(SerdeType.STRING)
+            .build();
+
+        Produce.Output output = task.run(runContext);
+        assertThat(output.getMessagesCount(), is(20));
+
+        // Ordering is not guaranteed in async mode, only check that every message arrived
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+        ) {
+
+            connection.start();
+            MessageConsumer consumer = session.createConsumer(session.createQueue(TEST_QUEUE_NAME));
+
+            java.util.Set<String> received = new java.util.HashSet<>();
+            for (int i = 1; i <= 20; i++) {
+                Message message = consumer.receive(5000);
+                assertThat(message, notNullValue());
+                received.add(((TextMessage) message).getText());
+            }
+            assertThat(received, hasSize(20));
+        }
+    }
+
+    @Test
+    void produceAsynchronouslyFailsWhenTheOnlyPooledSessionFails() throws Exception {
+        // Create test queue
+        createTestQueue();
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        // A map is not a valid JMS property value, so the send of the first message fails
+        List<Map<String, Object>> from = new java.util.ArrayList<>();
+        from.add(Map.of("data", "Invalid message", "headers", Map.of("nested", Map.of("key", "value"))));
+        for (int i = 1; i <= 5; i++) {
+            from.add(Map.of("data", "Message " + i));
+        }
+
+        Produce task = Produce.builder()
+            .id("produce-test-async-pool-exhausted")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(Map.of("brokerURL", ACTIVEMQ_URL))
+                    // explicit credentials keep this pool apart from the ones of the other tests
+                    .username(ACTIVEMQ_USER)
+                    .password(ACTIVEMQ_PASSWORD)
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            // the leased session is the only one of the pool, no additional in-flight slot can be opened
+            .connectionPool(
+                ConnectionPoolConfig.builder()
+                    .maxConnections(Property.ofValue(1))
+                    .maxSessionsPerConnection(Property.ofValue(1))
+                    .borrowTimeout(Property.ofValue(Duration.ofSeconds(1)))
+                    .build()
+            )
+            .from(from)
+            .async(Property.ofValue(true))
+            .maxInFlight(Property.ofValue(4))
+            .serdeType(SerdeType.STRING)
+            .build();
+
+        // Once the only slot is dropped, the remaining sends time out on the pool instead of waiting forever
+        IllegalStateException exception = assertTimeoutPreemptively(
+            Duration.ofSeconds(30),
+            () -> assertThrows(IllegalStateException.class, () -> task.run(runContext))
+        );
+        assertThat(exception.getMessage(), containsString("failed to be sent"));
+    }
+
+    @Test
+    void produceAvroMessageWithInlineSchema() throws Exception {
+        // Create test queue
+        createTestQueue();
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+        Property<String> schema = Property.ofValue("""
+            {"type": "record", "name": "Order", "fields": [
+              {"name": "id", "type": "long"},
+              {"name": "customer", "type": ["null", "string"], "default": null}
+            ]}""");
+
+        Produce task = Produce.builder()
+            .id("produce-test-avro")
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .from(Map.of("data", Map.of("id", 42, "customer", "ACME")))
+            .serdeType(SerdeType.AVRO)
+            .schema(schema)
+            .build();
+
+        Produce.Output output = task.run(runContext);
+        assertThat(output.getMessagesCount(), is(1));
+
+        // Binary formats are sent as BytesMessages, decoded back with the same schema
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+        ) {
+
+            connection.start();
+            MessageConsumer consumer = session.createConsumer(session.createQueue(TEST_QUEUE_NAME));
+
+            Message message = consumer.receive(5000);
+            assertThat(message, instanceOf(BytesMessage.class));
+
+            byte[] body = message.getBody(byte[].class);
+            Object data = Serde.of(runContext, SerdeType.AVRO, schema, null).deserialize(body);
+            assertThat(data, is(Map.of("id", 42L, "customer", "ACME")));
+        }
+    }
+
+    @Test
+    void produceMsgpackMessage() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Object data = this.produceAndDecode(runContext, SerdeType.MSGPACK, null, null, Map.of("id", 42, "tags", List.of("a", "b")));
+        assertThat(data, is(Map.of("id", 42, "tags", List.of("a", "b"))));
+    }
+
+    @Test
+    void produceCborMessage() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Object data = this.produceAndDecode(runContext, SerdeType.CBOR, null, null, Map.of("id", 42, "tags", List.of("a", "b")));
+        assertThat(data, is(Map.of("id", 42, "tags", List.of("a", "b"))));
+    }
+
+    @Test
+    void produceProtobufMessage() throws Exception {
+        // A descriptor set as generated by protoc, uploaded to Kestra storage
+        DescriptorProtos.FileDescriptorSet descriptorSet = DescriptorProtos.FileDescriptorSet.newBuilder()
+            .addFile(DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName("order.proto")
+                .setPackage("acme")
+                .setSyntax("proto3")
+                .addMessageType(DescriptorProtos.DescriptorProto.newBuilder()
+                    .setName("Order")
+                    .addField(DescriptorProtos.FieldDescriptorProto.newBuilder()
+                        .setName("id")
+                        .setNumber(1)
+                        .setType(DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT64))
+                    .addField(DescriptorProtos.FieldDescriptorProto.newBuilder()
+                        .setName("customer")
+                        .setNumber(2)
+                        .setType(DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING))))
+            .build();
+
+        URI schemaUri;
+        try (var input = new ByteArrayInputStream(descriptorSet.toByteArray())) {
+            schemaUri = storageInterface.put(MAIN_TENANT, null, URI.create("/jms-test-order.desc"), input);
+        }
+
+        RunContext runContext = runContextFactory.of(Map.of("testId", IdUtils.create()));
+
+        Object data = this.produceAndDecode(
+            runContext,
+            SerdeType.PROTOBUF,
+            Property.ofValue(schemaUri.toString()),
+            Property.ofValue("acme.Order"),
+            Map.of("id", 42, "customer", "ACME")
+        );
+        assertThat(data, is(Map.of("id", 42L, "customer", "ACME")));
+    }
+
+    /**
+     * Produces the data as a single message, then receives it as is and decodes it back with the same format.
+     */
+    private Object produceAndDecode(RunContext runContext, SerdeType serdeType, Property<String> schema, Property<String> messageType, Object data) throws Exception {
+        createTestQueue();
+
+        Produce task = Produce.builder()
+            .id("produce-test-" + serdeType.name().toLowerCase())
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .from(Map.of("data", data))
+            .serdeType(serdeType)
+            .schema(schema)
+            .messageType(messageType)
+            .build();
+
+        Produce.Output output = task.run(runContext);
+        assertThat(output.getMessagesCount(), is(1));
+
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+        ) {
+
+            connection.start();
+            MessageConsumer consumer = session.createConsumer(session.createQueue(TEST_QUEUE_NAME));
+
+            Message message = consumer.receive(5000);
+            assertThat(message, instanceOf(BytesMessage.class));
+
+            byte[] body = message.getBody(byte[].class);
+            return Serde.of(runContext, serdeType, schema, messageType).deserialize(body);
+        }
+    }
 }
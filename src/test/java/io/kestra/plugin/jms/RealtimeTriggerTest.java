@@ -1,18 +1,35 @@
 package io.kestra.plugin.jms;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.activemq.artemis.api.core.management.ResourceNames;
+import org.apache.activemq.artemis.api.jms.management.JMSManagementHelper;
 import org.junit.jupiter.api.Test;
 
 import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
 import io.kestra.core.models.flows.Flow;
 import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.Trigger;
+import io.kestra.core.runners.RunContextFactory;
 import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
 import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+import io.kestra.plugin.jms.configuration.ReconnectConfig;
 import io.kestra.plugin.jms.serde.SerdeType;
 
 import at.conapi.oss.jms.adapter.AbstractDestination;
+import jakarta.inject.Inject;
 import jakarta.jms.*;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -20,6 +37,9 @@ import static org.hamcrest.Matchers.*;
 @KestraTest
 class RealtimeTriggerTest extends AbstractJMSTest {
 
+    @Inject
+    private RunContextFactory runContextFactory;
+
     @Test
     void triggerOnMessageArrival() throws Exception {
         // Create test queue
@@ -124,6 +144,220 @@ class RealtimeTriggerTest extends AbstractJMSTest {
         assertThat(trigger.getDestination(), notNullValue());
     }
 
+    @Test
+    void emitThroughBoundedBuffer() throws Exception {
+        // Create test queue and send more messages than the buffer holds
+        createTestQueue();
+        for (int i = 0; i < 5; i++) {
+            sendTestMessage(TEST_QUEUE_NAME, "Message " + i);
+        }
+
+        RealtimeTrigger trigger = RealtimeTrigger.builder()
+            .id(IdUtils.create())
+            .type(RealtimeTrigger.class.getName())
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .bufferSize(Property.ofValue(2))
+            .build();
+
+        Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        // Delivery is paused and resumed around the buffer, every message still gets its execution
+        List<Execution> executions = Flux.from(trigger.evaluate(context.getKey(), context.getValue()))
+            .take(5)
+            .collectList()
+            .block(Duration.ofSeconds(30));
+
+        assertThat(executions, hasSize(5));
+    }
+
+    @Test
+    void emitConcurrentlyKeepingKeyOrder() throws Exception {
+        // Create test queue and send interleaved messages of two groups
+        createTestQueue();
+        for (int i = 0; i < 10; i++) {
+            sendTestMessageWithGroup(TEST_QUEUE_NAME, "Message " + i, i % 2 == 0 ? "even" : "odd");
+        }
+
+        RealtimeTrigger trigger = RealtimeTrigger.builder()
+            .id(IdUtils.create())
+            .type(RealtimeTrigger.class.getName())
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .concurrency(Property.ofValue(4))
+            .orderingKey(Property.ofValue("JMSXGroupID"))
+            .build();
+
+        Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        List<String> received = Flux.from(trigger.evaluate(context.getKey(), context.getValue()))
+            .take(10)
+            .map(execution -> (String) execution.getTrigger().getVariables().get("data"))
+            .collectList()
+            .block(Duration.ofSeconds(30));
+
+        assertThat(received, hasSize(10));
+        // Lanes interleave, but each group keeps its order
+        assertThat(received.stream().filter(data -> Integer.parseInt(data.substring(8)) % 2 == 0).toList(), contains("Message 0", "Message 2", "Message 4", "Message 6", "Message 8"));
+        assertThat(received.stream().filter(data -> Integer.parseInt(data.substring(8)) % 2 == 1).toList(), contains("Message 1", "Message 3", "Message 5", "Message 7", "Message 9"));
+    }
+
+    @Test
+    void emitFromTriggersSharingConnection() throws Exception {
+        // Create test queue consumed by two triggers on the same connection
+        createTestQueue();
+        for (int i = 0; i < 6; i++) {
+            sendTestMessage(TEST_QUEUE_NAME, "Message " + i);
+        }
+
+        List<Flux<Execution>> executions = new java.util.ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            RealtimeTrigger trigger = RealtimeTrigger.builder()
+                .id(IdUtils.create())
+                .type(RealtimeTrigger.class.getName())
+                .connectionFactoryConfig(
+                    ConnectionFactoryConfig.Direct.builder()
+                        .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                        .connectionProperties(
+                            Map.of(
+                                "brokerURL", ACTIVEMQ_URL,
+                                "user", ACTIVEMQ_USER,
+                                "password", ACTIVEMQ_PASSWORD
+                            )
+                        )
+                        .build()
+                )
+                .destination(
+                    JMSDestination.builder()
+                        .destinationName(TEST_QUEUE_NAME)
+                        .destinationType(AbstractDestination.DestinationType.QUEUE)
+                        .build()
+                )
+                .serdeType(Property.ofValue(SerdeType.STRING))
+                .bufferSize(Property.ofValue(2))
+                .shareConnection(Property.ofValue(true))
+                .build();
+
+            Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+            executions.add(Flux.from(trigger.evaluate(context.getKey(), context.getValue())));
+        }
+
+        // Each trigger has its own sessions, the queue spreads the messages between them
+        List<Execution> received = Flux.merge(executions)
+            .take(6)
+            .collectList()
+            .block(Duration.ofSeconds(30));
+
+        assertThat(received, hasSize(6));
+    }
+
+    @Test
+    void resumeDeliveryAfterConnectionLoss() throws Exception {
+        createTestQueue();
+        sendTestMessage(TEST_QUEUE_NAME, "Before");
+
+        RealtimeTrigger trigger = RealtimeTrigger.builder()
+            .id(IdUtils.create())
+            .type(RealtimeTrigger.class.getName())
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .reconnect(ReconnectConfig.builder().initialDelay(Property.ofValue(Duration.ofMillis(100))).build())
+            .build();
+
+        Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        BlockingQueue<Execution> executions = new LinkedBlockingQueue<>();
+        Disposable subscription = Flux.from(trigger.evaluate(context.getKey(), context.getValue())).subscribe(executions::add);
+        try {
+            assertThat(executions.poll(30, TimeUnit.SECONDS), notNullValue());
+
+            // The broker drops the trigger's connection, the message sent meanwhile is delivered on the new one
+            closeBrokerConnections();
+            sendTestMessage(TEST_QUEUE_NAME, "After");
+
+            Execution execution = executions.poll(30, TimeUnit.SECONDS);
+            assertThat(execution, notNullValue());
+            assertThat(execution.getTrigger().getVariables().get("data"), is("After"));
+        } finally {
+            subscription.dispose();
+        }
+
+        List<String> metrics = context.getKey().getRunContext().metrics().stream().map(metric -> metric.getName()).toList();
+        assertThat(metrics, hasItem("reconnects"));
+    }
+
+    /**
+     * Closes every connection of the test user through the Artemis management address,
+     * returning once the connection used to send the request was closed as well.
+     */
+    private void closeBrokerConnections() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        Connection connection = connectionFactory.createConnection();
+        try {
+            connection.setExceptionListener(exception -> closed.countDown());
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+            Message request = session.createMessage();
+            JMSManagementHelper.putOperationInvocation(request, ResourceNames.BROKER, "closeConnectionsForUser", ACTIVEMQ_USER);
+            session.createProducer(session.createQueue("activemq.management")).send(request);
+
+            assertThat(closed.await(10, TimeUnit.SECONDS), is(true));
+        } finally {
+            connection.close();
+        }
+    }
+
     /**
      * Helper method to send a test message to a queue.
      */
@@ -158,4 +392,22 @@ class RealtimeTriggerTest extends AbstractJMSTest {
             producer.send(message);
         }
     }
+
+    /**
+     * Helper method to send a test message in a message group.
+     */
+    private void sendTestMessageWithGroup(String queueName, String messageText, String groupId) throws Exception {
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+        ) {
+
+            Queue queue = session.createQueue(queueName);
+            MessageProducer producer = session.createProducer(queue);
+
+            TextMessage message = session.createTextMessage(messageText);
+            message.setStringProperty("JMSXGroupID", groupId);
+            producer.send(message);
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package io.kestra.plugin.jms;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+import io.kestra.plugin.jms.configuration.ConnectionFactoryConfig;
+import io.kestra.plugin.jms.serde.SerdeType;
+
+import at.conapi.oss.jms.adapter.AbstractDestination;
+import jakarta.inject.Inject;
+import jakarta.jms.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class TriggerTest extends AbstractJMSTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void pollMessagesIntoOneExecution() throws Exception {
+        // Create test queue and send multiple messages
+        createTestQueue();
+        sendTestMessage(TEST_QUEUE_NAME, "Message 1");
+        sendTestMessage(TEST_QUEUE_NAME, "Message 2");
+        sendTestMessage(TEST_QUEUE_NAME, "Message 3");
+
+        Trigger trigger = Trigger.builder()
+            .id(IdUtils.create())
+            .type(Trigger.class.getName())
+            .connectionFactoryConfig(
+                ConnectionFactoryConfig.Direct.builder()
+                    .connectionFactoryClass(Property.ofValue("org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory"))
+                    .connectionProperties(
+                        Map.of(
+                            "brokerURL", ACTIVEMQ_URL,
+                            "user", ACTIVEMQ_USER,
+                            "password", ACTIVEMQ_PASSWORD
+                        )
+                    )
+                    .build()
+            )
+            .destination(
+                JMSDestination.builder()
+                    .destinationName(TEST_QUEUE_NAME)
+                    .destinationType(AbstractDestination.DestinationType.QUEUE)
+                    .build()
+            )
+            .serdeType(Property.ofValue(SerdeType.STRING))
+            .maxRecords(Property.ofValue(10))
+            .maxDuration(Property.ofValue(Duration.ofSeconds(2)))
+            .build();
+
+        Map.Entry<ConditionContext, io.kestra.core.models.triggers.Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        Optional<Execution> execution = trigger.evaluate(context.getKey(), context.getValue());
+        assertThat(execution.isPresent(), is(true));
+        assertThat(execution.get().getTrigger().getVariables().get("count"), is(3));
+
+        // The pooled connection is reused and no execution is started on an empty queue
+        Optional<Execution> empty = trigger.evaluate(context.getKey(), context.getValue());
+        assertThat(empty.isPresent(), is(false));
+    }
+
+    /**
+     * Helper method to send a test message to a queue.
+     */
+    private void sendTestMessage(String queueName, String messageText) throws Exception {
+        try (
+            Connection connection = connectionFactory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)
+        ) {
+
+            Queue queue = session.createQueue(queueName);
+            MessageProducer producer = session.createProducer(queue);
+
+            TextMessage message = session.createTextMessage(messageText);
+            producer.send(message);
+        }
+    }
+}